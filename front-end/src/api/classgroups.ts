@@ -1,12 +1,11 @@
-import { apiClient } from "./client";
+import { apiClient, getAllPages } from "./client";
 import type { ClassGroup, ClassGroupCreate, ClassGroupUpdate } from "@/types";
 
 export const classGroupsApi = {
   // Listar todas as aulas
-  // Endpoint: GET /api/classes
+  // Endpoint: GET /api/classes (todas as páginas)
   getAll: async (): Promise<ClassGroup[]> => {
-    const response = await apiClient.get<ClassGroup[]>("/classes");
-    return response.data;
+    return getAllPages<ClassGroup>("/classes");
   },
 
   // Buscar aula por ID
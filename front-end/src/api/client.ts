@@ -74,3 +74,25 @@ apiClient.interceptors.response.use(
     return Promise.reject(error);
   },
 );
+
+// Listas paginadas por cursor: segue o header X-Next-Cursor até a última
+// página e devolve todos os itens juntos
+const PAGE_LIMIT = 200;
+
+export const getAllPages = async <T>(
+  url: string,
+  params: Record<string, unknown> = {},
+): Promise<T[]> => {
+  const items: T[] = [];
+  let cursor: string | undefined;
+
+  do {
+    const response = await apiClient.get<T[]>(url, {
+      params: { ...params, limit: PAGE_LIMIT, cursor },
+    });
+    items.push(...response.data);
+    cursor = response.headers["x-next-cursor"] || undefined;
+  } while (cursor);
+
+  return items;
+};
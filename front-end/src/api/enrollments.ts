@@ -1,12 +1,11 @@
-import { apiClient } from "./client";
+import { apiClient, getAllPages } from "./client";
 import type { Enrollment, EnrollmentCreate } from "@/types";
 
 export const enrollmentsApi = {
   // Listar todas as matrículas
-  // Endpoint: GET /api/enrollments
+  // Endpoint: GET /api/enrollments (todas as páginas)
   getAll: async (): Promise<Enrollment[]> => {
-    const response = await apiClient.get<Enrollment[]>("/enrollments");
-    return response.data;
+    return getAllPages<Enrollment>("/enrollments");
   },
 
   // Buscar matrícula por ID
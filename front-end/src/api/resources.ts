@@ -1,12 +1,11 @@
-import { apiClient } from "./client";
+import { apiClient, getAllPages } from "./client";
 import type { Resource, ResourceCreate, ResourceUpdate } from "@/types";
 
 export const resourcesApi = {
   // Listar todos os recursos
-  // Endpoint: GET /api/resources
+  // Endpoint: GET /api/resources (todas as páginas)
   getAll: async (): Promise<Resource[]> => {
-    const response = await apiClient.get<Resource[]>("/resources");
-    return response.data;
+    return getAllPages<Resource>("/resources");
   },
 
   // Buscar recurso por ID
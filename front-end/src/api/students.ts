@@ -1,12 +1,11 @@
-import { apiClient } from "./client";
+import { apiClient, getAllPages } from "./client";
 import type { Student, StudentCreate, StudentUpdate, StudentMe } from "@/types";
 
 export const studentsApi = {
   // Listar todos os estudantes
-  // Endpoint: GET /api/students
+  // Endpoint: GET /api/students (todas as páginas)
   getAll: async (): Promise<Student[]> => {
-    const response = await apiClient.get<Student[]>("/students");
-    return response.data;
+    return getAllPages<Student>("/students");
   },
 
   // Buscar estudante por ID
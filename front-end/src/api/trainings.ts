@@ -1,12 +1,11 @@
-import { apiClient } from "./client";
+import { apiClient, getAllPages } from "./client";
 import type { Training, TrainingCreate, TrainingUpdate } from "@/types";
 
 export const trainingsApi = {
   // Listar todos os treinamentos
-  // Endpoint: GET /api/trainings
+  // Endpoint: GET /api/trainings (todas as páginas)
   getAll: async (): Promise<Training[]> => {
-    const response = await apiClient.get<Training[]>("/trainings");
-    return response.data;
+    return getAllPages<Training>("/trainings");
   },
 
   // Buscar treinamento por ID
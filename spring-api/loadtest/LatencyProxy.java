@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+
+/**
+ * TCP proxy that holds every chunk coming back from the server for a fixed delay, to stand
+ * in for a database across the network when the load test runs next to a local PostgreSQL.
+ * Every round trip then costs at least the delay:
+ *
+ * <pre>
+ * java loadtest/LatencyProxy.java 5433 localhost:5432 20
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5433/class ...
+ * </pre>
+ */
+public class LatencyProxy {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        String[] target = args[1].split(":");
+        Duration delay = Duration.ofMillis(Long.parseLong(args[2]));
+        InetSocketAddress upstream = new InetSocketAddress(target[0], Integer.parseInt(target[1]));
+
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.printf("localhost:%d -> %s, +%dms per round trip%n", port, args[1], delay.toMillis());
+            while (true) {
+                Socket client = server.accept();
+                Thread.startVirtualThread(() -> {
+                    try (client; Socket db = new Socket()) {
+                        db.connect(upstream);
+                        client.setTcpNoDelay(true);
+                        db.setTcpNoDelay(true);
+                        Thread requests = Thread.startVirtualThread(() -> pipe(client, db, Duration.ZERO));
+                        pipe(db, client, delay);
+                        requests.join();
+                    } catch (IOException | InterruptedException ignored) {
+                    }
+                });
+            }
+        }
+    }
+
+    private static void pipe(Socket from, Socket to, Duration delay) {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (!delay.isZero()) {
+                    Thread.sleep(delay);
+                }
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException ignored) {
+        } finally {
+            try {
+                to.shutdownOutput();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load: every client is a virtual thread on its own keep-alive connection
+ * that sends a request, waits for the answer, pauses for the think time and goes again.
+ * Clients are spread evenly over the paths, each path is sent with the token given before
+ * it, and start times are spread over one think time so they do not all fire at once.
+ * Latencies count only inside the measurement window, after the warm-up. No dependencies,
+ * run it from source:
+ *
+ * <pre>
+ * java loadtest/LoadTest.java --clients 5000 --think 30s --duration 60s \
+ *     --token $ADMIN_TOKEN --path /api/students/1 \
+ *     --token $STUDENT_TOKEN --path /api/students/me/dashboard
+ * </pre>
+ */
+public class LoadTest {
+
+    record Target(String path, URI uri, String authorization) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = "http://localhost:8080";
+        String token = System.getenv("TOKEN");
+        int clients = 5000;
+        Duration think = Duration.ZERO;
+        Duration warmup = Duration.ofSeconds(30);
+        Duration duration = Duration.ofSeconds(60);
+        List<String[]> paths = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url" -> baseUrl = value;
+                case "--token" -> token = value;
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--think" -> think = parseDuration(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--path" -> paths.add(new String[]{value, token});
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("At least one --path is required");
+        }
+        List<Target> targets = new ArrayList<>();
+        for (String[] path : paths) {
+            targets.add(new Target(path[0], URI.create(baseUrl + path[0]), path[1] == null ? null : "Bearer " + path[1]));
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        long thinkNanos = think.toNanos();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        List<Map<String, AtomicLong>> errors = new ArrayList<>();
+        targets.forEach(target -> errors.add(new ConcurrentHashMap<>()));
+
+        System.out.printf("%d clients, think %s, warm-up %s, measured %s%n", clients, think, warmup, duration);
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(httpExecutor)
+                .build();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                Target target = targets.get(client % targets.size());
+                Map<String, AtomicLong> targetErrors = errors.get(client % targets.size());
+                executor.submit(() -> {
+                    long[] samples = new long[64];
+                    int count = 0;
+                    Thread.sleep(Duration.ofNanos(thinkNanos > 0 ? ThreadLocalRandom.current().nextLong(thinkNanos) : 0));
+                    while (true) {
+                        HttpRequest.Builder request = HttpRequest.newBuilder(target.uri())
+                                .timeout(Duration.ofSeconds(120))
+                                .GET();
+                        if (target.authorization() != null) {
+                            request.header("Authorization", target.authorization());
+                        }
+                        long sent = System.nanoTime();
+                        if (sent >= deadline) {
+                            break;
+                        }
+                        String error = null;
+                        try {
+                            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                error = "HTTP " + response.statusCode();
+                            }
+                        } catch (Exception e) {
+                            error = e.getClass().getSimpleName();
+                        }
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom) {
+                            if (error != null) {
+                                targetErrors.computeIfAbsent(error, k -> new AtomicLong()).incrementAndGet();
+                            } else {
+                                if (count == samples.length) {
+                                    samples = Arrays.copyOf(samples, count * 2);
+                                }
+                                samples[count++] = received - sent;
+                            }
+                        }
+                        if (thinkNanos > 0) {
+                            Thread.sleep(Duration.ofNanos(thinkNanos));
+                        }
+                    }
+                    latencies[client] = samples;
+                    counts[client] = count;
+                    return null;
+                });
+            }
+        }
+        http.close();
+        httpExecutor.close();
+
+        double seconds = duration.toNanos() / 1e9;
+        for (int t = 0; t < targets.size(); t++) {
+            int total = 0;
+            for (int c = t; c < clients; c += targets.size()) {
+                total += counts[c];
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (int c = t; c < clients; c += targets.size()) {
+                if (latencies[c] != null) {
+                    System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+                    offset += counts[c];
+                }
+            }
+            Arrays.sort(all);
+
+            System.out.printf("%s: %d ok, %.0f req/s", targets.get(t).path(), total, total / seconds);
+            if (total > 0) {
+                System.out.printf(", p50 %s  p90 %s  p99 %s  max %s",
+                        millis(all, 0.50), millis(all, 0.90), millis(all, 0.99), millis(all, 1.0));
+            }
+            System.out.println(errors.get(t).isEmpty() ? "" : ", errors " + new TreeMap<>(errors.get(t)));
+        }
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return String.format("%.0f ms", sorted[Math.max(index, 0)] / 1e6);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,38 @@
+package com.guisandroni.classroom.management.Benchmark;
+
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import com.guisandroni.classroom.management.Auth.Service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds auth components outside of a Spring context for the benchmarks.
+ */
+final class AuthFixtures {
+
+    static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvblRoYXRJc0F0TGVhc3QyNTZCaXRzTG9uZzIwMjQ=";
+
+    private AuthFixtures() {
+    }
+
+    static JwtService jwtService(boolean cacheEnabled) {
+        JwtService jwtService = new JwtService(new VerifiedTokenCache(cacheEnabled, 10_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    static User student() {
+        return User.builder()
+                .id(3L)
+                .name("João Silva")
+                .email("joao.silva@email.com")
+                .phoneNumber("11988881001")
+                .password("$2a$10$dc5cJyphV6Ug0VmISA7idOmArMDM4WhBEQfq7AW7KXfKyvwocgnH2")
+                .role(Role.STUDENT)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.guisandroni.classroom.management.Benchmark;
+
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
+import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.ClassroomManagementApplication;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Resource.Service.ResourceService;
+import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
+import com.guisandroni.classroom.management.Training.Service.TrainingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog reads through the services with the Hibernate second-level and query caches on
+ * and off. Boots the application without a web server against the database configured
+ * in {@code DB_URL}, {@code DB_USER} and {@code DB_PASSWORD}, and reads the class with
+ * the most resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 6, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CatalogReadBenchmark {
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private TrainingService trainingService;
+    private ClassService classService;
+    private ResourceService resourceService;
+    private long trainingId;
+    private long classId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ClassroomManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments, not default properties: those would lose to application.yaml.
+                .run("--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "--logging.level.root=WARN");
+        trainingService = context.getBean(TrainingService.class);
+        classService = context.getBean(ClassService.class);
+        resourceService = context.getBean(ResourceService.class);
+
+        Map<String, Object> target = context.getBean(JdbcTemplate.class).queryForMap("""
+                SELECT c.id, c.training_id FROM classes c
+                JOIN resources r ON r.class_id = c.id
+                GROUP BY c.id ORDER BY count(*) DESC, c.id LIMIT 1
+                """);
+        classId = ((Number) target.get("id")).longValue();
+        trainingId = ((Number) target.get("training_id")).longValue();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TrainingResponse trainingById() {
+        return trainingService.findById(trainingId);
+    }
+
+    @Benchmark
+    public ClassResponse classById() {
+        return classService.findById(classId);
+    }
+
+    @Benchmark
+    public List<ClassResponse> classesByTraining() {
+        return classService.findByTrainingId(trainingId);
+    }
+
+    @Benchmark
+    public List<ResourceResponse> resourcesByClass() {
+        return resourceService.findByClassId(classId);
+    }
+}
@@ -0,0 +1,72 @@
+package com.guisandroni.classroom.management.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import com.guisandroni.classroom.management.Config.JwtAuthenticationFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass through {@link JwtAuthenticationFilter} for a bearer request, with the user
+ * lookup stubbed out so only the filter's own work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"false", "true"})
+    public boolean claimsOnly;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = AuthFixtures.jwtService(cacheEnabled);
+        User user = AuthFixtures.student();
+        UserDetailsService userDetailsService = username -> user;
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "claimsOnly", claimsOnly);
+        authorization = "Bearer " + jwtService.generateToken(user, 1L);
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainings/my");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,53 @@
+package com.guisandroni.classroom.management.Benchmark;
+
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation, with the verified-token cache on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class JwtServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = AuthFixtures.jwtService(cacheEnabled);
+        user = AuthFixtures.student();
+        token = jwtService.generateToken(user, 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, 1L);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+}
@@ -20,8 +20,11 @@ public class AuthServiceAdmin {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CachedUserDetailsService userDetailsService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     public AuthResponseAdmin register(RegisterRequest request) {
+        loginAttemptLimiter.acquire(request.getEmail());
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email is already in use");
         }
@@ -35,6 +38,7 @@ public class AuthServiceAdmin {
                 .build();
 
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
         var jwtToken = jwtService.generateToken(user);
 
         return AuthResponseAdmin.builder()
@@ -49,6 +53,7 @@ public class AuthServiceAdmin {
     }
 
     public AuthResponseAdmin login(LoginRequest request) {
+        loginAttemptLimiter.acquire(request.getEmail());
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
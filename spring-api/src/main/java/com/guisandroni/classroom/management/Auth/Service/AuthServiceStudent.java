@@ -22,10 +22,13 @@ public class AuthServiceStudent {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CachedUserDetailsService userDetailsService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
     private final StudentRepository studentRepository;
 
 
     public AuthResponseStudent register(RegisterRequest request) {
+        loginAttemptLimiter.acquire(request.getEmail());
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email is already in use");
         }
@@ -39,7 +42,7 @@ public class AuthServiceStudent {
                 .build();
 
         userRepository.save(user);
-        var jwtToken = jwtService.generateToken(user);
+        userDetailsService.evict(user.getEmail());
 
         Student student = new Student();
         student.setName(request.getName());
@@ -47,7 +50,7 @@ public class AuthServiceStudent {
         student.setPhoneNumber(request.getPhoneNumber());
 
         studentRepository.save(student);
-
+        var jwtToken = jwtService.generateToken(user, student.getId());
 
         return AuthResponseStudent.builder()
                 .token(jwtToken)
@@ -61,6 +64,7 @@ public class AuthServiceStudent {
     }
 
     public AuthResponseStudent login(LoginRequest request) {
+        loginAttemptLimiter.acquire(request.getEmail());
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
@@ -71,7 +75,10 @@ public class AuthServiceStudent {
         var user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        var jwtToken = jwtService.generateToken(user);
+        Long studentId = studentRepository.findByEmail(user.getEmail())
+                .map(Student::getId)
+                .orElse(null);
+        var jwtToken = jwtService.generateToken(user, studentId);
 
         return AuthResponseStudent.builder()
                 .token(jwtToken)
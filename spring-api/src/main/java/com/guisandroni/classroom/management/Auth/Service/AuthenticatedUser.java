@@ -0,0 +1,45 @@
+package com.guisandroni.classroom.management.Auth.Service;
+
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lightweight principal built from verified token claims, used instead of loading
+ * the {@link User} row when {@code jwt.claims-only} is enabled.
+ */
+public record AuthenticatedUser(Long userId, String email, Role role, Long studentId) implements AuthenticatedPrincipal {
+
+    public static Optional<AuthenticatedUser> fromToken(VerifiedToken token) {
+        Number userId = token.claims().get(JwtService.CLAIM_USER_ID, Number.class);
+        String role = token.claims().get(JwtService.CLAIM_ROLE, String.class);
+        if (token.subject() == null || userId == null || role == null) {
+            return Optional.empty();
+        }
+        Number studentId = token.claims().get(JwtService.CLAIM_STUDENT_ID, Number.class);
+        return Optional.of(new AuthenticatedUser(
+                userId.longValue(),
+                token.subject(),
+                Role.valueOf(role),
+                studentId != null ? studentId.longValue() : null
+        ));
+    }
+
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), null);
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,109 @@
+package com.guisandroni.classroom.management.Auth.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Repository.UserRepository;
+import com.guisandroni.classroom.management.Common.CacheInvalidation;
+import com.guisandroni.classroom.management.Common.CallerLoads;
+import com.guisandroni.classroom.management.Common.InvalidatableCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link UserDetailsService} backed by a bounded, TTL-based cache of {@link User} by email.
+ * Write paths must call {@link #evict(String)} after changing a user, which also evicts it
+ * on the other instances. Setting
+ * {@code auth.user-cache.enabled=false} sends every lookup to the database.
+ * <p>
+ * Also stores passwords re-hashed by {@code DaoAuthenticationProvider} when the configured
+ * BCrypt cost changes.
+ */
+@Service
+public class CachedUserDetailsService implements UserDetailsService, UserDetailsPasswordService, InvalidatableCache {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final AsyncCache<String, User> cache;
+
+    public CachedUserDetailsService(
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${auth.user-cache.enabled:true}") boolean enabled,
+            @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+            @Value("${auth.user-cache.max-size:10000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+        Gauge.builder("auth.user-cache.hit-ratio", cache, c -> c.synchronous().stats().hitRate())
+                .description("Share of user lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        User user = enabled
+                ? CallerLoads.get(cache, username, email -> userRepository.findByEmail(email).orElse(null))
+                : userRepository.findByEmail(username).orElse(null);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return user;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        entity.setPassword(newPassword);
+        userRepository.save(entity);
+        evict(entity.getEmail());
+        return entity;
+    }
+
+    public void evict(String email) {
+        cache.synchronous().invalidate(email);
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.USERS, List.of(email)));
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+        eventPublisher.publishEvent(CacheInvalidation.all(CacheInvalidation.Region.USERS));
+    }
+
+    @Override
+    public CacheInvalidation.Region region() {
+        return CacheInvalidation.Region.USERS;
+    }
+
+    @Override
+    public void evictLocally(Collection<String> emails) {
+        cache.synchronous().invalidateAll(emails);
+    }
+
+    @Override
+    public void evictAllLocally() {
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,76 @@
+package com.guisandroni.classroom.management.Auth.Service;
+
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Resolves the caller from the security context, whether the principal is a full
+ * {@link User} or an {@link AuthenticatedUser} built from token claims.
+ */
+@Service
+@RequiredArgsConstructor
+public class CurrentUserService {
+
+    private final StudentRepository studentRepository;
+
+    public AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResourceNotFoundException("User not authenticated");
+        }
+        return toUser(authentication.getPrincipal())
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid user principal"));
+    }
+
+    /**
+     * Like {@link #currentUser()}, but empty instead of throwing when nobody is
+     * authenticated, for checks that only answer yes or no.
+     */
+    public Optional<AuthenticatedUser> findCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+        return toUser(authentication.getPrincipal());
+    }
+
+    /**
+     * Student id of the caller, read from the token when present and looked up by email otherwise.
+     */
+    public Long currentStudentId() {
+        return findStudentId(currentUser())
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found for current user"));
+    }
+
+    /**
+     * Student id of the caller, or empty when nobody is authenticated or the caller is not a student.
+     */
+    public Optional<Long> findCurrentStudentId() {
+        return findCurrentUser().flatMap(this::findStudentId);
+    }
+
+    private Optional<Long> findStudentId(AuthenticatedUser user) {
+        if (user.studentId() != null) {
+            return Optional.of(user.studentId());
+        }
+        return studentRepository.findByEmail(user.email()).map(Student::getId);
+    }
+
+    private static Optional<AuthenticatedUser> toUser(Object principal) {
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return Optional.of(authenticatedUser);
+        }
+        if (principal instanceof User user) {
+            return Optional.of(AuthenticatedUser.fromUser(user));
+        }
+        return Optional.empty();
+    }
+}
@@ -1,13 +1,17 @@
 package com.guisandroni.classroom.management.Auth.Service;
 
+import com.guisandroni.classroom.management.Auth.Entity.User;
 import com.guisandroni.classroom.management.Exception.InvalidTokenException;
 import com.guisandroni.classroom.management.Exception.TokenExpiredException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -19,21 +23,47 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STUDENT_ID = "sid";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
+    /**
+     * Verifies the token once and returns its claims. Repeat tokens are served from
+     * {@link VerifiedTokenCache} until their expiration.
+     */
+    public VerifiedToken verify(String token) {
+        return verifiedTokenCache.get(token, t -> VerifiedToken.of(extractAllClaims(t)));
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token).claims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -44,9 +74,27 @@ public class JwtService {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    /**
+     * Issues a token for a user. The user id, role and (for students) student id are
+     * embedded so claims-only authentication can skip the database lookup.
+     */
+    public String generateToken(User user, Long studentId) {
+        Map<String, Object> claims = new HashMap<>();
+        if (studentId != null) {
+            claims.put(CLAIM_STUDENT_ID, studentId);
+        }
+        return generateToken(claims, user);
+    }
+
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof User user) {
+            claims.putIfAbsent(CLAIM_USER_ID, user.getId());
+            claims.putIfAbsent(CLAIM_ROLE, user.getRole().name());
+        }
+
         return Jwts.builder()
-                .claims(extraClaims)
+                .claims(claims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -55,8 +103,11 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     public void validateToken(String token, UserDetails userDetails) {
@@ -65,19 +116,9 @@ public class JwtService {
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSignInKey())
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (ExpiredJwtException e) {
@@ -88,7 +129,6 @@ public class JwtService {
     }
 
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
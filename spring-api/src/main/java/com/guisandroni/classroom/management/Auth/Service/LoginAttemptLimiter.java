@@ -0,0 +1,78 @@
+package com.guisandroni.classroom.management.Auth.Service;
+
+import com.guisandroni.classroom.management.Exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fixed-window limit on login and registration attempts per email. Counters live in a
+ * fixed number of lock stripes so concurrent attempts for different emails rarely contend,
+ * and expired windows are purged as each stripe grows.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final Stripe[] stripes;
+    private final int maxAttempts;
+    private final long windowMillis;
+
+    public LoginAttemptLimiter(
+            @Value("${auth.login.max-attempts:10}") int maxAttempts,
+            @Value("${auth.login.window:1m}") Duration window,
+            @Value("${auth.login.stripes:64}") int stripeCount
+    ) {
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = window.toMillis();
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void acquire(String email) {
+        String key = email == null ? "" : email.toLowerCase(Locale.ROOT);
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+
+        long retryAfterMillis = stripe.tryAcquire(key, System.currentTimeMillis(), maxAttempts, windowMillis);
+        if (retryAfterMillis > 0) {
+            throw new TooManyRequestsException(
+                    "Too many attempts for this account, try again later",
+                    Math.max(1, Duration.ofMillis(retryAfterMillis).toSeconds())
+            );
+        }
+    }
+
+    private static final class Stripe {
+
+        private static final int PURGE_THRESHOLD = 1024;
+
+        private final Map<String, long[]> windows = new HashMap<>();
+
+        /**
+         * @return 0 when the attempt is allowed, otherwise milliseconds until the window resets
+         */
+        synchronized long tryAcquire(String key, long now, int maxAttempts, long windowMillis) {
+            if (windows.size() >= PURGE_THRESHOLD) {
+                windows.values().removeIf(window -> now - window[0] >= windowMillis);
+            }
+
+            // window[0] = start of the current window, window[1] = attempts in it
+            long[] window = windows.computeIfAbsent(key, k -> new long[]{now, 0});
+            if (now - window[0] >= windowMillis) {
+                window[0] = now;
+                window[1] = 0;
+            }
+            if (window[1] >= maxAttempts) {
+                return window[0] + windowMillis - now;
+            }
+            window[1]++;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.guisandroni.classroom.management.Auth.Service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been checked.
+ */
+public record VerifiedToken(String subject, Date expiration, Claims claims) {
+
+    public static VerifiedToken of(Claims claims) {
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
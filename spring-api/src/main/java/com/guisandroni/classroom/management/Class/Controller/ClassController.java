@@ -1,15 +1,29 @@
 package com.guisandroni.classroom.management.Class.Controller;
 
+import com.guisandroni.classroom.management.Class.DTO.ClassBulkDeleteRequest;
 import com.guisandroni.classroom.management.Class.DTO.ClassRequest;
 import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
 import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.ConditionalGet;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.MergePatch;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,11 +32,20 @@ import java.util.List;
 public class ClassController {
 
     private final ClassService classService;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ClassResponse>> findAll() {
-        return ResponseEntity.ok(classService.findAll());
+    public ResponseEntity<List<ClassResponse>> findAll(
+            @RequestParam(required = false) Long trainingId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = ClassService.SORT_START_DATE) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(Aggregate.CLASS, Aggregate.TRAINING),
+                () -> classService.findPage(trainingId, from, to, sort, cursor, limit).toResponseEntity());
     }
 
     @GetMapping("/{id}")
@@ -31,6 +54,13 @@ public class ClassController {
         return ResponseEntity.ok(classService.findById(id));
     }
 
+    @GetMapping("/{id}/roster/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportRoster(
+            @PathVariable Long id,
+            @RequestParam(required = false) String format) {
+        return classService.exportRoster(id, ExportFormat.from(format));
+    }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -44,10 +74,25 @@ public class ClassController {
         return ResponseEntity.ok(classService.update(id, request));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ClassResponse> patch(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        return ResponseEntity.ok(classService.patch(id, body, ifMatch));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         classService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@Valid @RequestBody ClassBulkDeleteRequest request) {
+        return ResponseEntity.ok(classService.deleteAll(request));
+    }
 }
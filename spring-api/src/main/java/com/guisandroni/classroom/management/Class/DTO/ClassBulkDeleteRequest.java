@@ -0,0 +1,31 @@
+package com.guisandroni.classroom.management.Class.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Either {@code ids}, or a filter with the same meaning as on {@code GET /api/classes}:
+ * classes of {@code trainingId} starting in [{@code from}, {@code to}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassBulkDeleteRequest {
+
+    @Size(max = 10000, message = "At most 10000 IDs per request")
+    private List<@NotNull Long> ids;
+
+    private Long trainingId;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+}
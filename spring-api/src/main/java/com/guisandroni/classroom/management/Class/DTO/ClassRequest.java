@@ -2,6 +2,7 @@ package com.guisandroni.classroom.management.Class.DTO;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,4 +32,7 @@ public class ClassRequest {
 
     @Size(max = 255, message = "Access link must be at most 255 characters")
     private String accessLink;
+
+    @PositiveOrZero(message = "Capacity must be zero or positive")
+    private Integer capacity;
 }
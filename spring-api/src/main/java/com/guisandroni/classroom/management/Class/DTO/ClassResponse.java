@@ -19,4 +19,7 @@ public class ClassResponse {
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private String accessLink;
+    private Integer capacity;
+    private int seatsTaken;
+    private Long version;
 }
@@ -8,6 +8,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,12 +22,19 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "classes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-class")
+@DynamicUpdate
 public class Class {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "class_seq")
+    @SequenceGenerator(name = "class_seq", sequenceName = "classes_id_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "training_id", nullable = false)
     private Training training;
@@ -41,6 +51,14 @@ public class Class {
     @Column(length = 255)
     private String accessLink;
 
+    private Integer capacity;
+
+    // Owned by SeatAllocationRepository: only ever changed with conditional updates in SQL,
+    // which evicts the cached class so this never lags behind for long.
+    @Column(insertable = false, updatable = false)
+    private int seatsTaken;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-class-resources")
     @OneToMany(mappedBy = "classEntity", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Resource> resources;
 
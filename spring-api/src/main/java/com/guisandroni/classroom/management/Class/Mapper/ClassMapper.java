@@ -16,6 +16,7 @@ public class ClassMapper {
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate())
                 .accessLink(request.getAccessLink())
+                .capacity(request.getCapacity())
                 .build();
     }
 
@@ -28,6 +29,20 @@ public class ClassMapper {
                 .startDate(classEntity.getStartDate())
                 .endDate(classEntity.getEndDate())
                 .accessLink(classEntity.getAccessLink())
+                .capacity(classEntity.getCapacity())
+                .seatsTaken(classEntity.getSeatsTaken())
+                .version(classEntity.getVersion())
+                .build();
+    }
+
+    public static ClassRequest toClassRequest(Class classEntity) {
+        return ClassRequest.builder()
+                .trainingId(classEntity.getTraining().getId())
+                .name(classEntity.getName())
+                .startDate(classEntity.getStartDate())
+                .endDate(classEntity.getEndDate())
+                .accessLink(classEntity.getAccessLink())
+                .capacity(classEntity.getCapacity())
                 .build();
     }
 
@@ -37,5 +52,6 @@ public class ClassMapper {
         classEntity.setStartDate(request.getStartDate());
         classEntity.setEndDate(request.getEndDate());
         classEntity.setAccessLink(request.getAccessLink());
+        classEntity.setCapacity(request.getCapacity());
     }
 }
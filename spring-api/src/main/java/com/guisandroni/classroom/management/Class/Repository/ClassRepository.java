@@ -1,13 +1,121 @@
 package com.guisandroni.classroom.management.Class.Repository;
 
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
 import com.guisandroni.classroom.management.Class.Entity.Class;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ClassRepository extends JpaRepository<Class, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.guisandroni.classroom.management.Class.DTO.ClassResponse(" +
+            "c.id, t.id, t.name, c.name, c.startDate, c.endDate, c.accessLink, c.capacity, c.seatsTaken, c.version) " +
+            "FROM Class c JOIN c.training t ";
+
+    /*
+     * Classes running at some point in [from, to): their schedules overlap, which the GiST
+     * index of V10 answers. A class starts at least as early as from minus the longest class,
+     * and that bound lets the planner see how far along the start date index the first page
+     * is, where the overlap alone would have it walk from the oldest class.
+     *
+     * Absent bounds are open sentinels. The training filter gets queries of its own rather
+     * than an IS NULL OR branch, so an equality on training_id leads the
+     * (training_id, start_date, id) index in every plan, generic ones included.
+     */
+    String PAGE_FILTER = "WHERE c.startDate >= :earliestStart " +
+            "AND c.startDate < :to " +
+            "AND cast(sql('(tsrange(?, ?) && tsrange(?, ?))', c.startDate, c.endDate, :from, :to) as Boolean) ";
+
     List<Class> findByName(String className);
-    List<Class> findByTrainingId(Long trainingId);
+
+    @Query("SELECT c FROM Class c JOIN FETCH c.training t WHERE t.id = :trainingId ORDER BY c.id")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    List<Class> findByTrainingId(@Param("trainingId") Long trainingId);
+
+    @Query(RESPONSE_SELECT + PAGE_FILTER +
+            "AND c.id > :afterId " +
+            "ORDER BY c.id")
+    List<ClassResponse> findPageById(@Param("earliestStart") LocalDateTime earliestStart,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("afterId") long afterId,
+                                     Limit limit);
+
+    @Query(RESPONSE_SELECT + PAGE_FILTER +
+            "AND t.id = :trainingId " +
+            "AND c.id > :afterId " +
+            "ORDER BY c.id")
+    List<ClassResponse> findPageByIdInTraining(@Param("trainingId") Long trainingId,
+                                               @Param("earliestStart") LocalDateTime earliestStart,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("afterId") long afterId,
+                                               Limit limit);
+
+    @Query(RESPONSE_SELECT + PAGE_FILTER +
+            "AND (c.startDate, c.id) > (:afterStartDate, :afterId) " +
+            "ORDER BY c.startDate, c.id")
+    List<ClassResponse> findPageByStartDate(@Param("earliestStart") LocalDateTime earliestStart,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("afterStartDate") LocalDateTime afterStartDate,
+                                            @Param("afterId") long afterId,
+                                            Limit limit);
+
+    @Query(RESPONSE_SELECT + PAGE_FILTER +
+            "AND t.id = :trainingId " +
+            "AND (c.startDate, c.id) > (:afterStartDate, :afterId) " +
+            "ORDER BY c.startDate, c.id")
+    List<ClassResponse> findPageByStartDateInTraining(@Param("trainingId") Long trainingId,
+                                                      @Param("earliestStart") LocalDateTime earliestStart,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      @Param("afterStartDate") LocalDateTime afterStartDate,
+                                                      @Param("afterId") long afterId,
+                                                      Limit limit);
+
+    /**
+     * Duration of the longest class in seconds, or null when there are none. Read from the
+     * index on end_date - start_date.
+     */
+    @Query(value = "SELECT CAST(extract(epoch FROM max(end_date - start_date)) AS bigint) FROM classes",
+            nativeQuery = true)
+    Long findLongestDurationSeconds();
+
+    @Query(RESPONSE_SELECT + "JOIN Enrollment e ON e.classEntity = c " +
+            "WHERE e.studentEntity.id = :studentId " +
+            "ORDER BY c.startDate, c.id")
+    List<ClassResponse> findResponsesByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * One statement; the database cascades to enrollments, waitlists and resources.
+     */
+    @Modifying
+    @Query("DELETE FROM Class c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Class c WHERE c.startDate >= :from AND c.startDate < :to")
+    int deleteAllByStartDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM Class c WHERE c.training.id = :trainingId " +
+            "AND c.startDate >= :from AND c.startDate < :to")
+    int deleteAllByTrainingIdAndStartDate(@Param("trainingId") Long trainingId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
 }
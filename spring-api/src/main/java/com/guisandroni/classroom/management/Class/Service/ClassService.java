@@ -1,5 +1,16 @@
 package com.guisandroni.classroom.management.Class.Service;
 
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.CatalogCache;
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.JdbcExporter;
+import com.guisandroni.classroom.management.Common.MergePatch;
+import com.guisandroni.classroom.management.Enrollment.Repository.SeatAllocationRepository;
+import com.guisandroni.classroom.management.Class.DTO.ClassBulkDeleteRequest;
 import com.guisandroni.classroom.management.Class.DTO.ClassRequest;
 import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
 import com.guisandroni.classroom.management.Class.Entity.Class;
@@ -7,44 +18,118 @@ import com.guisandroni.classroom.management.Class.Mapper.ClassMapper;
 import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
 import com.guisandroni.classroom.management.Training.Entity.Training;
 import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
+import com.guisandroni.classroom.management.Resource.Service.VisibleResourceCache;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardCache;
 import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
 import com.guisandroni.classroom.management.Exception.BusinessException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ClassService {
 
+    public static final String SORT_ID = "id";
+    public static final String SORT_START_DATE = "startDate";
+
+    // Open ends of date filters, so they stay plain index conditions.
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final String ROSTER_SQL = """
+            SELECT s.id AS "studentId", s.name, s.email, s.phone_number AS "phoneNumber", e.id AS "enrollmentId"
+            FROM enrollments e
+            JOIN students s ON s.id = e.student_id
+            WHERE e.class_id = ?
+            ORDER BY s.name, s.id
+            """;
+
     private final ClassRepository classRepository;
     private final TrainingRepository trainingRepository;
+    private final JdbcExporter jdbcExporter;
+    private final SeatAllocationRepository seatAllocationRepository;
+    private final StudentDashboardCache dashboardCache;
+    private final VisibleResourceCache visibleResourceCache;
+    private final CatalogVersions catalogVersions;
+    private final CatalogCache catalogCache;
+    private final MergePatch mergePatch;
 
     @Transactional(readOnly = true)
-    public List<ClassResponse> findAll() {
-        return classRepository.findAll()
-                .stream()
-                .map(ClassMapper::toClassResponse)
-                .toList();
+    public CursorPage<ClassResponse> findPage(Long trainingId, LocalDateTime from, LocalDateTime to,
+                                              String sort, String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        LocalDateTime runningFrom = from != null ? from : MIN_DATE;
+        LocalDateTime runningTo = to != null ? to : MAX_DATE;
+        if (runningTo.isBefore(runningFrom)) {
+            throw new BusinessException("to must not be before from");
+        }
+        LocalDateTime earliestStart = MIN_DATE;
+        if (from != null) {
+            Long longest = classRepository.findLongestDurationSeconds();
+            LocalDateTime bound = from.minusSeconds(longest != null ? longest : 0L);
+            earliestStart = bound.isAfter(MIN_DATE) ? bound : MIN_DATE;
+        }
+        if (SORT_ID.equals(sort)) {
+            long afterId = Cursor.afterId(cursor, SORT_ID);
+            List<ClassResponse> rows = trainingId == null
+                    ? classRepository.findPageById(earliestStart, runningFrom, runningTo, afterId, Limit.of(pageSize + 1))
+                    : classRepository.findPageByIdInTraining(
+                            trainingId, earliestStart, runningFrom, runningTo, afterId, Limit.of(pageSize + 1));
+            return CursorPage.of(rows, pageSize, row -> Cursor.encode(SORT_ID, row.getId()));
+        }
+        if (!SORT_START_DATE.equals(sort)) {
+            throw new BusinessException("sort must be one of: " + SORT_START_DATE + ", " + SORT_ID);
+        }
+
+        String[] after = Cursor.decode(cursor, SORT_START_DATE, 2);
+        LocalDateTime afterStartDate = MIN_DATE;
+        long afterId = 0L;
+        if (after != null) {
+            try {
+                afterStartDate = LocalDateTime.parse(after[0]);
+            } catch (RuntimeException e) {
+                throw new BusinessException("Invalid cursor");
+            }
+            afterId = Cursor.parseLong(after[1]);
+        }
+        List<ClassResponse> rows = trainingId == null
+                ? classRepository.findPageByStartDate(
+                        earliestStart, runningFrom, runningTo, afterStartDate, afterId, Limit.of(pageSize + 1))
+                : classRepository.findPageByStartDateInTraining(
+                        trainingId, earliestStart, runningFrom, runningTo, afterStartDate, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, row -> Cursor.encode(SORT_START_DATE, row.getStartDate(), row.getId()));
     }
 
     @Transactional(readOnly = true)
     public ClassResponse findById(Long id) {
-        Class classEntity = classRepository.findById(id)
+        return classRepository.findById(id)
+                .map(ClassMapper::toClassResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + id));
-        return ClassMapper.toClassResponse(classEntity);
     }
 
     @Transactional(readOnly = true)
     public List<ClassResponse> findByTrainingId(Long trainingId) {
-        return classRepository.findByTrainingId(trainingId)
-                .stream()
+        return classRepository.findByTrainingId(trainingId).stream()
                 .map(ClassMapper::toClassResponse)
                 .toList();
     }
 
+    public ResponseEntity<StreamingResponseBody> exportRoster(Long id, ExportFormat format) {
+        if (!classRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Class not found with id: " + id);
+        }
+        return jdbcExporter.export("class-" + id + "-roster", format, ROSTER_SQL, id);
+    }
+
     @Transactional
     public ClassResponse create(ClassRequest request) {
         Training training = trainingRepository.findById(request.getTrainingId())
@@ -56,32 +141,106 @@ public class ClassService {
 
         Class classEntity = ClassMapper.toClass(request, training);
         classEntity = classRepository.save(classEntity);
+        catalogVersions.bump(Aggregate.CLASS);
         return ClassMapper.toClassResponse(classEntity);
     }
 
     @Transactional
     public ClassResponse update(Long id, ClassRequest request) {
-        Class classEntity = classRepository.findById(id)
+        return update(findEntity(id), request);
+    }
+
+    /**
+     * Applies a JSON Merge Patch. Only the columns that actually change are written, and a
+     * patch that changes nothing writes nothing.
+     */
+    @Transactional
+    public ClassResponse patch(Long id, InputStream patch, String ifMatch) {
+        Class classEntity = findEntity(id);
+        mergePatch.checkVersion(classEntity.getVersion(), ifMatch);
+        ClassRequest current = ClassMapper.toClassRequest(classEntity);
+        ClassRequest request = mergePatch.apply(current, patch);
+        if (request.equals(current)) {
+            return ClassMapper.toClassResponse(classEntity);
+        }
+        return update(classEntity, request);
+    }
+
+    private Class findEntity(Long id) {
+        return classRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + id));
+    }
 
-        Training training = trainingRepository.findById(request.getTrainingId())
-                .orElseThrow(() -> new ResourceNotFoundException("Training not found with id: " + request.getTrainingId()));
+    private ClassResponse update(Class classEntity, ClassRequest request) {
+        Long id = classEntity.getId();
+        // Keep the current (possibly uninitialized) training unless the class moves.
+        Training training = request.getTrainingId().equals(classEntity.getTraining().getId())
+                ? classEntity.getTraining()
+                : trainingRepository.findById(request.getTrainingId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Training not found with id: " + request.getTrainingId()));
 
         if (request.getEndDate().isBefore(request.getStartDate())) {
             throw new BusinessException("End date must be after start date");
         }
 
+        if (request.getCapacity() != null && request.getCapacity() < classEntity.getSeatsTaken()) {
+            throw new BusinessException("Capacity cannot be lower than the " + classEntity.getSeatsTaken() + " seats already taken");
+        }
+
         ClassMapper.updateClass(classEntity, request, training);
-        classEntity = classRepository.save(classEntity);
-        return ClassMapper.toClassResponse(classEntity);
+        try {
+            classEntity = classRepository.saveAndFlush(classEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException("Capacity cannot be lower than the number of seats already taken");
+        }
+
+        // A larger capacity frees seats for the waitlist.
+        int promoted = seatAllocationRepository.promote(id).size();
+        catalogVersions.bump(Aggregate.CLASS);
+        dashboardCache.evictAll();
+        // The name and start date are part of what students see of its resources.
+        visibleResourceCache.evict(id);
+        ClassResponse response = ClassMapper.toClassResponse(classEntity);
+        response.setSeatsTaken(response.getSeatsTaken() + promoted);
+        return response;
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!classRepository.existsById(id)) {
-            throw new RuntimeException("Class not found with id: " + id);
+        if (classRepository.deleteAllByIdIn(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Class not found with id: " + id);
+        }
+        evictDeleted();
+    }
+
+    @Transactional
+    public BulkDeleteResponse deleteAll(ClassBulkDeleteRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getTrainingId() != null || request.getFrom() != null || request.getTo() != null;
+        if (byIds == byFilter) {
+            throw new BusinessException("Give either ids or at least one of trainingId, from and to");
         }
-        classRepository.deleteById(id);
+
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : MIN_DATE;
+        LocalDateTime to = request.getTo() != null ? request.getTo() : MAX_DATE;
+        int deleted;
+        if (byIds) {
+            deleted = classRepository.deleteAllByIdIn(request.getIds());
+        } else if (request.getTrainingId() != null) {
+            deleted = classRepository.deleteAllByTrainingIdAndStartDate(request.getTrainingId(), from, to);
+        } else {
+            deleted = classRepository.deleteAllByStartDate(from, to);
+        }
+        if (deleted > 0) {
+            evictDeleted();
+        }
+        return BulkDeleteResponse.builder().deleted(deleted).build();
+    }
+
+    private void evictDeleted() {
+        // The database took their resources, enrollments and waitlists with them.
+        catalogCache.evict(Aggregate.CLASS, Aggregate.RESOURCE);
+        dashboardCache.evictAll();
     }
 
 }
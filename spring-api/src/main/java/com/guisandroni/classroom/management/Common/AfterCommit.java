@@ -0,0 +1,26 @@
+package com.guisandroni.classroom.management.Common;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * For cache evictions made by write paths. Evicting only inside the transaction leaves a
+ * window in which a concurrent reader caches the old state again, so the action is run
+ * right away and once more after the surrounding transaction commits.
+ */
+@UtilityClass
+public class AfterCommit {
+
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
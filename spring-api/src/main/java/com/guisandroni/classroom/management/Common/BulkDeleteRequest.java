@@ -0,0 +1,22 @@
+package com.guisandroni.classroom.management.Common;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    @NotEmpty(message = "IDs are required")
+    @Size(max = 10000, message = "At most 10000 IDs per request")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,15 @@
+package com.guisandroni.classroom.management.Common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+
+    private int deleted;
+}
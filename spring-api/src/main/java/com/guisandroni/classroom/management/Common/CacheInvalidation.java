@@ -0,0 +1,29 @@
+package com.guisandroni.classroom.management.Common;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Application event asking every other instance to drop entries from one of its in-process
+ * caches. Published by the caches themselves when a write path evicts locally, and sent
+ * to the cluster by {@link CacheInvalidationPublisher} once the transaction commits.
+ * An empty key list means the whole cache.
+ */
+public record CacheInvalidation(Region region, List<String> keys) {
+
+    public enum Region {
+        USERS, DASHBOARDS, CATALOG, VISIBLE_RESOURCES
+    }
+
+    public static CacheInvalidation of(Region region, Collection<?> keys) {
+        return new CacheInvalidation(region, keys.stream().map(String::valueOf).toList());
+    }
+
+    public static CacheInvalidation all(Region region) {
+        return new CacheInvalidation(region, List.of());
+    }
+
+    public boolean isAll() {
+        return keys.isEmpty();
+    }
+}
@@ -0,0 +1,201 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Applies the {@link CacheInvalidation}s published by the other instances to the local
+ * {@link InvalidatableCache}s. Keeps one dedicated connection outside the pool
+ * {@code LISTEN}ing on the channel, and reconnects with a growing delay when it breaks.
+ * <p>
+ * Notifications sent while no connection was listening are lost, so every cache is
+ * flushed as soon as a connection starts listening, the first one included.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final CacheInvalidationPublisher publisher;
+    private final Map<CacheInvalidation.Region, List<InvalidatableCache>> caches = new EnumMap<>(CacheInvalidation.Region.class);
+    private final List<InvalidatableCache> allCaches;
+    private final boolean enabled;
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final Duration pollInterval;
+    private final Duration maxReconnectDelay;
+    private final Counter received;
+    private final Counter flushes;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public CacheInvalidationListener(
+            CacheInvalidationPublisher publisher,
+            List<InvalidatableCache> caches,
+            MeterRegistry meterRegistry,
+            @Value("${cache-invalidation.enabled:true}") boolean enabled,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${cache-invalidation.poll-interval:10s}") Duration pollInterval,
+            @Value("${cache-invalidation.max-reconnect-delay:30s}") Duration maxReconnectDelay
+    ) {
+        this.publisher = publisher;
+        this.allCaches = List.copyOf(caches);
+        for (InvalidatableCache cache : caches) {
+            this.caches.computeIfAbsent(cache.region(), region -> new ArrayList<>()).add(cache);
+        }
+        this.enabled = enabled;
+        this.url = url;
+        this.connectionProperties.setProperty("user", username);
+        this.connectionProperties.setProperty("password", password);
+        this.connectionProperties.setProperty("ApplicationName", "classroom-management cache invalidation");
+        this.connectionProperties.setProperty("tcpKeepAlive", "true");
+        // Bounds the liveness query below, so a silently dropped connection is noticed.
+        this.connectionProperties.setProperty("socketTimeout", String.valueOf(pollInterval.multipliedBy(3).toSeconds()));
+        this.pollInterval = pollInterval;
+        this.maxReconnectDelay = maxReconnectDelay;
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations received from other instances")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("cache.invalidation.flushes")
+                .description("Full cache flushes after the invalidation connection was (re)established")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.connected", this, listener -> listener.connected ? 1 : 0)
+                .description("Whether this instance is listening for cache invalidations")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Error closing the cache invalidation connection", e);
+            }
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        Duration delay = MIN_RECONNECT_DELAY;
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(url, connectionProperties)) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN \"" + publisher.channel() + "\"");
+                }
+                connected = true;
+                delay = MIN_RECONNECT_DELAY;
+                flushAll();
+                listen(listening);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation connection lost, reconnecting in {}", delay, e);
+                }
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            if (running) {
+                sleep(delay);
+                Duration doubled = delay.multipliedBy(2);
+                delay = doubled.compareTo(maxReconnectDelay) < 0 ? doubled : maxReconnectDelay;
+            }
+        }
+    }
+
+    private void listen(Connection listening) throws SQLException {
+        PGConnection pgConnection = listening.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+            if (notifications == null || notifications.length == 0) {
+                // Waiting for notifications never touches the socket; this fails on a dead connection.
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                apply(notification.getParameter());
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        CacheInvalidationPublisher.Message message;
+        try {
+            message = publisher.decode(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable cache invalidation {}, flushing every cache", payload, e);
+            flushAll();
+            return;
+        }
+        if (publisher.nodeId().equals(message.node())) {
+            return;
+        }
+        received.increment();
+        for (InvalidatableCache cache : caches.getOrDefault(message.region(), List.of())) {
+            if (message.keys().isEmpty()) {
+                cache.evictAllLocally();
+            } else {
+                cache.evictLocally(message.keys());
+            }
+        }
+    }
+
+    private void flushAll() {
+        flushes.increment();
+        allCaches.forEach(InvalidatableCache::evictAllLocally);
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Sends {@link CacheInvalidation} events to the other instances with PostgreSQL
+ * {@code NOTIFY} once the publishing transaction has committed, or right away when there
+ * is none. Every message carries this instance's id so {@link CacheInvalidationListener}
+ * can skip its own.
+ * <p>
+ * Committed events are queued and sent by a single thread, several at a time and without
+ * duplicates. Sending from the committing thread would need a second pooled connection
+ * while that thread still holds its first, which starves the pool under load.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationPublisher implements SmartLifecycle {
+
+    /**
+     * PostgreSQL rejects payloads of 8000 bytes or more.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final int MAX_BATCH = 500;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public CacheInvalidationPublisher(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${cache-invalidation.enabled:true}") boolean enabled,
+            @Value("${cache-invalidation.channel:cache_invalidation}") String channel
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(CacheInvalidation invalidation) {
+        if (!enabled) {
+            return;
+        }
+        String payload = encode(invalidation);
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            payload = encode(CacheInvalidation.all(invalidation.region()));
+        }
+        queue.add(payload);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation-publisher").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    String channel() {
+        return channel;
+    }
+
+    Message decode(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, Message.class);
+    }
+
+    private void run() {
+        while (running) {
+            List<String> drained = new ArrayList<>();
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(drained, MAX_BATCH - 1);
+            send(new LinkedHashSet<>(drained));
+        }
+        // Whatever committed before shutdown still goes out.
+        List<String> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            send(new LinkedHashSet<>(remaining));
+        }
+    }
+
+    private void send(Set<String> payloads) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> payloads.forEach(payload ->
+                    jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload)));
+        } catch (DataAccessException e) {
+            // The writes themselves have committed; the other instances catch up when their entries expire.
+            log.warn("Could not publish {} cache invalidations", payloads.size(), e);
+        }
+    }
+
+    private String encode(CacheInvalidation invalidation) {
+        try {
+            return objectMapper.writeValueAsString(new Message(nodeId, invalidation.region(), invalidation.keys()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cache invalidation", e);
+        }
+    }
+
+    record Message(String node, CacheInvalidation.Region region, List<String> keys) {
+    }
+}
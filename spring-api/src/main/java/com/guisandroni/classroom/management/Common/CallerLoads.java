@@ -0,0 +1,71 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import lombok.experimental.UtilityClass;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache lookups that load on the calling thread, outside any lock. A synchronous Caffeine
+ * {@code get(key, loader)} runs the loader inside {@code ConcurrentHashMap.compute}, which
+ * holds a monitor and so pins a virtual thread to its carrier for the whole database round
+ * trip. Here only an empty future goes in under the lock; the thread that put it there
+ * loads and completes it, and concurrent callers for the same key wait on that future.
+ * A {@code null} or failed load leaves nothing in the cache.
+ * <p>
+ * {@link #getAll} does the same for the keys that are missing, in one load; keys the loader
+ * leaves out are left out of the result too.
+ */
+@UtilityClass
+public class CallerLoads {
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    public static <K, V> Map<K, V> getAll(AsyncCache<K, V> cache, Collection<K> keys,
+                                          Function<Set<K>, Map<K, V>> loader) {
+        CompletableFuture<Map<K, V>> created = new CompletableFuture<>();
+        Set<K> missing = new HashSet<>();
+        CompletableFuture<Map<K, V>> future = cache.getAll(keys, (absent, executor) -> {
+            absent.forEach(missing::add);
+            return created;
+        });
+        if (!missing.isEmpty()) {
+            try {
+                created.complete(loader.apply(missing));
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(future);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
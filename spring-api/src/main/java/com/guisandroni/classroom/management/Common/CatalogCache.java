@@ -0,0 +1,117 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts catalog entities from the Hibernate second-level cache after they were changed
+ * with plain SQL or removed by database cascades, which Hibernate does not see, and bumps
+ * their {@link CatalogVersions}. Writes made through JPA keep the local cache up to date
+ * on their own.
+ * <p>
+ * The second-level cache is per instance, so catalog changes made elsewhere arrive here as
+ * {@link CacheInvalidation}s: a version bump evicts the whole aggregate with its collections
+ * and cached queries, while {@code CLASS:<id>} keys from seat changes evict single classes.
+ */
+@Component
+public class CatalogCache implements InvalidatableCache {
+
+    private static final String CLASS_KEY_PREFIX = Aggregate.CLASS + ":";
+    private static final String TRAINING_CLASSES = Training.class.getName() + ".classes";
+    private static final String CLASS_RESOURCES = Class.class.getName() + ".resources";
+
+    private final Cache cache;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogCache(
+            EntityManagerFactory entityManagerFactory,
+            CatalogVersions catalogVersions,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void evictClass(Long classId) {
+        evictClasses(List.of(classId));
+    }
+
+    public void evictClasses(Collection<Long> classIds) {
+        if (classIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(classIds);
+        AfterCommit.runNowAndAfterCommit(() -> ids.forEach(id -> cache.evictEntityData(Class.class, id)));
+        catalogVersions.bumpLocally(Aggregate.CLASS);
+        eventPublisher.publishEvent(CacheInvalidation.of(
+                CacheInvalidation.Region.CATALOG, ids.stream().map(id -> CLASS_KEY_PREFIX + id).toList()));
+    }
+
+    public void evictAllClasses() {
+        AfterCommit.runNowAndAfterCommit(() -> cache.evictEntityData(Class.class));
+        catalogVersions.bumpLocally(Aggregate.CLASS);
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.CATALOG, List.of(Aggregate.CLASS)));
+    }
+
+    /**
+     * Drops whole aggregates with their collections and cached queries, for set-based
+     * deletes whose cascades reach rows Hibernate never loaded.
+     */
+    public void evict(Aggregate... aggregates) {
+        AfterCommit.runNowAndAfterCommit(() -> Arrays.stream(aggregates).forEach(this::evictRegions));
+        catalogVersions.bumpLocally(aggregates);
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.CATALOG, Arrays.asList(aggregates)));
+    }
+
+    @Override
+    public CacheInvalidation.Region region() {
+        return CacheInvalidation.Region.CATALOG;
+    }
+
+    @Override
+    public void evictLocally(Collection<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith(CLASS_KEY_PREFIX)) {
+                cache.evictEntityData(Class.class, Long.valueOf(key.substring(CLASS_KEY_PREFIX.length())));
+                catalogVersions.bumpLocally(Aggregate.CLASS);
+            } else {
+                Aggregate aggregate = Aggregate.valueOf(key);
+                evictRegions(aggregate);
+                catalogVersions.bumpLocally(aggregate);
+            }
+        }
+    }
+
+    @Override
+    public void evictAllLocally() {
+        cache.evictAllRegions();
+        catalogVersions.bumpLocally(Aggregate.values());
+    }
+
+    private void evictRegions(Aggregate aggregate) {
+        switch (aggregate) {
+            case TRAINING -> cache.evictEntityData(Training.class);
+            case CLASS -> {
+                cache.evictEntityData(Class.class);
+                cache.evictCollectionData(TRAINING_CLASSES);
+            }
+            case RESOURCE -> {
+                cache.evictEntityData(Resource.class);
+                cache.evictCollectionData(CLASS_RESOURCES);
+            }
+        }
+        cache.evictQueryRegions();
+    }
+}
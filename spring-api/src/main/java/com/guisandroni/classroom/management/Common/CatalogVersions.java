@@ -0,0 +1,63 @@
+package com.guisandroni.classroom.management.Common;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters for the catalog, used as strong ETags so a conditional GET
+ * can be answered before touching the database. Every write to an aggregate must
+ * {@link #bump} it; bumps are repeated after commit so a response rendered from the old
+ * state never carries the new version.
+ * <p>
+ * Counters restart with the application, so each ETag also carries a random epoch picked
+ * at startup: a tag issued before a restart, or by another instance, never matches.
+ * Bumps are also sent to the other instances, where {@link CatalogCache} applies them.
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Aggregate {
+        TRAINING, CLASS, RESOURCE
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogVersions(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    public void bump(Aggregate... aggregates) {
+        bumpLocally(aggregates);
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.CATALOG, Arrays.asList(aggregates)));
+    }
+
+    void bumpLocally(Aggregate... aggregates) {
+        AfterCommit.runNowAndAfterCommit(() -> {
+            for (Aggregate aggregate : aggregates) {
+                versions.get(aggregate).incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Strong ETag for a representation built from the given aggregates.
+     */
+    public String etag(Aggregate... aggregates) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (Aggregate aggregate : aggregates) {
+            etag.append('-').append(versions.get(aggregate).get());
+        }
+        return etag.append('"').toString();
+    }
+}
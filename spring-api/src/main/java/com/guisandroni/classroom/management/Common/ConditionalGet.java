@@ -0,0 +1,36 @@
+package com.guisandroni.classroom.management.Common;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET against a precomputed ETag. A matching {@code If-None-Match} is answered
+ * with 304 without calling {@code response}, so neither the query nor the serialization
+ * runs. Clients must revalidate every time, and shared caches must not store the
+ * response because the API is authenticated.
+ */
+@UtilityClass
+public class ConditionalGet {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<ResponseEntity<T>> response) {
+        if (request.checkNotModified(etag)) {
+            // checkNotModified already wrote the ETag header.
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+        ResponseEntity<T> full = response.get();
+        return ResponseEntity.status(full.getStatusCode())
+                .headers(full.getHeaders())
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(full.getBody());
+    }
+}
@@ -0,0 +1,80 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Opaque keyset cursors. A cursor carries the sort it was issued for and the sort key
+ * values of the last row returned, so the next page starts strictly after that row.
+ */
+@UtilityClass
+public class Cursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(String sort, Object... keys) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        joiner.add(sort);
+        for (Object key : keys) {
+            joiner.add(String.valueOf(key));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the key values of a cursor issued for {@code sort}, or {@code null} when no
+     * cursor was given.
+     */
+    public static String[] decode(String cursor, String sort, int keys) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+        if (parts.length != keys + 1 || !parts[0].equals(sort)) {
+            throw new BusinessException("Invalid cursor");
+        }
+        String[] values = new String[keys];
+        System.arraycopy(parts, 1, values, 0, keys);
+        return values;
+    }
+
+    /**
+     * Id to start after for an id-ordered cursor; 0 (before every row) when no cursor was given.
+     */
+    public static long afterId(String cursor, String sort) {
+        String[] keys = decode(cursor, sort, 1);
+        return keys == null ? 0L : parseLong(keys[0]);
+    }
+
+    public static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1) {
+            throw new BusinessException("limit must be at least 1");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,44 @@
+package com.guisandroni.classroom.management.Common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated collection. The body stays a plain JSON array; the
+ * cursor for the next page travels in the {@code Link} (rel="next") and
+ * {@code X-Next-Cursor} headers and is absent on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra row only
+     * signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.getLast()));
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        if (nextCursor == null) {
+            return ResponseEntity.ok(items);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", nextCursor)
+                .build()
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(items);
+    }
+}
@@ -0,0 +1,16 @@
+package com.guisandroni.classroom.management.Common;
+
+import java.util.Collection;
+
+/**
+ * An in-process cache that other instances can invalidate through
+ * {@link CacheInvalidationListener}. The local methods must not publish again.
+ */
+public interface InvalidatableCache {
+
+    CacheInvalidation.Region region();
+
+    void evictLocally(Collection<String> keys);
+
+    void evictAllLocally();
+}
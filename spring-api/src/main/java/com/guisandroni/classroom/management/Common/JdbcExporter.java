@@ -0,0 +1,214 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams the rows of a query straight to the response as NDJSON or CSV.
+ * <p>
+ * The query runs in a read-only transaction with a fetch size, so PostgreSQL serves it
+ * from a server-side cursor and only one fetch block is held in memory at a time. Each
+ * row is written as soon as it is read. When the client goes away the next write fails,
+ * which closes the cursor and rolls the transaction back.
+ * <p>
+ * The transaction is a plain JDBC one rather than a JPA one: the export outlives the
+ * request's open-in-view EntityManager, which is closed as soon as the client disconnects.
+ */
+@Slf4j
+@Component
+public class JdbcExporter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public JdbcExporter(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${exports.fetch-size:1000}") int fetchSize,
+            @Value("${exports.flush-every:500}") int flushEvery
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Builds a download response for {@code sql}. Column labels become the CSV header and
+     * the NDJSON field names, so alias them in the query.
+     */
+    public ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, String sql, Object... args) {
+        StreamingResponseBody body = output -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> stream(format, output, sql, args));
+            } catch (UncheckedIOException e) {
+                // The client went away; the cursor is already closed and there is nobody left to answer.
+                log.debug("Export {} cancelled: {}", name, e.getCause().getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private void stream(ExportFormat format, OutputStream output, String sql, Object[] args) {
+        try {
+            RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(output) : new NdjsonRowWriter(output);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                return statement;
+            }, rs -> {
+                try {
+                    writer.start(rs.getMetaData());
+                    int rows = 0;
+                    while (rs.next()) {
+                        writer.write(rs);
+                        if (++rows == 1 || rows % flushEvery == 0) {
+                            writer.flush();
+                        }
+                    }
+                    return rows;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private interface RowWriter {
+
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private int columns;
+
+        CsvRowWriter(OutputStream output) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = metaData.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                writer.write(i > 1 ? "," : "");
+                writer.write(Csv.escape(metaData.getColumnLabel(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                writer.write(i > 1 ? "," : "");
+                writer.write(Csv.escape(value(rs, i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private String[] labels;
+
+        NdjsonRowWriter(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException {
+            labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                generator.writeFieldName(labels[i]);
+                generator.writeObject(value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.guisandroni.classroom.management.Common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Exception.PreconditionFailedException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JSON Merge Patch (RFC 7396) over the flat request DTOs. The patch is merged into a request
+ * built from the current entity, so members left out keep their value and members set to
+ * null clear it, and the result is validated with the same constraints as a full update.
+ */
+@Component
+@RequiredArgsConstructor
+public class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    /** One member of an If-Match list: a quoted tag, optionally weak, or a bare token. */
+    private static final Pattern ENTITY_TAG = Pattern.compile("(?:W/)?\"([^\"]*)\"|([^\\s,]+)");
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @SuppressWarnings("unchecked")
+    public <T> T apply(T current, InputStream body) {
+        JsonNode patch;
+        try {
+            patch = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new BusinessException("Malformed merge patch");
+        }
+        if (patch == null || !patch.isObject()) {
+            throw new BusinessException("Merge patch must be a JSON object");
+        }
+
+        ObjectNode merged = objectMapper.valueToTree(current);
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!merged.has(name)) {
+                throw new BusinessException("Unknown field: " + name);
+            }
+        }
+        merged.setAll((ObjectNode) patch);
+
+        T result;
+        try {
+            result = objectMapper.treeToValue(merged, (Class<T>) current.getClass());
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(result);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return result;
+    }
+
+    /**
+     * Checks an optional {@code If-Match} header against the entity's row version. The header
+     * may list several entity tags (RFC 7232); it passes when one of them is {@code *} or
+     * carries the current version, as a bare number or as a (weak) entity tag.
+     */
+    public void checkVersion(Long version, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        Matcher tags = ENTITY_TAG.matcher(ifMatch);
+        while (tags.find()) {
+            String tag = tags.group(1) != null ? tags.group(1) : tags.group(2);
+            if (tag.equals("*") || tag.equals(String.valueOf(version))) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException(
+                "If-Match " + ifMatch.trim() + " does not match the current version " + version);
+    }
+}
@@ -3,35 +3,44 @@ package com.guisandroni.classroom.management.Config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.guisandroni.classroom.management.Auth.Repository.UserRepository;
+import com.guisandroni.classroom.management.Auth.Service.BoundedPasswordEncoder;
+import com.guisandroni.classroom.management.Auth.Service.CachedUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
-    @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-    }
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.password.wait-timeout:5s}")
+    private Duration hashingWaitTimeout;
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService());
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -41,8 +50,14 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(
+                bcryptStrength,
+                hashingThreads,
+                hashingQueueCapacity,
+                hashingWaitTimeout,
+                meterRegistry
+        );
     }
 
     @Bean
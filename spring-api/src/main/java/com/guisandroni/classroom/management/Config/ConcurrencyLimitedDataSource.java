@@ -0,0 +1,130 @@
+package com.guisandroni.classroom.management.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the connections the application holds at once with a fair semaphore in front of the
+ * pool, however many threads ask for one. With virtual threads thousands of requests can be
+ * waiting for the database; they queue here in arrival order, and give up after the acquire
+ * timeout. The permit goes back when the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.waitTimer = Timer.builder("db.concurrency.wait")
+                .description("Time spent waiting for a database permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.concurrency.rejected")
+                .description("Connection requests refused because no permit freed up in time")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Connections currently held by the application")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Replaces the pool as the bean, so it has to close the pool on shutdown.
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit");
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("No database permit became available within "
+                    + Duration.ofNanos(acquireTimeoutNanos).toMillis() + "ms");
+        }
+    }
+
+    private Connection releasingOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited " + target;
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,40 @@
+package com.guisandroni.classroom.management.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of the application's data source (the
+ * single pool, or the replica router when {@code datasource.replicas.enabled=true}), so the
+ * number of request threads no longer decides how many of them pile up on the pool. On
+ * unless {@code datasource.concurrency-limit.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSource(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${datasource.concurrency-limit.max-concurrent:10}") int maxConcurrent,
+            @Value("${datasource.concurrency-limit.acquire-timeout:30s}") Duration acquireTimeout
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, acquireTimeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
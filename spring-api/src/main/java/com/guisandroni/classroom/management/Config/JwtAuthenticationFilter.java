@@ -1,7 +1,9 @@
 package com.guisandroni.classroom.management.Config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guisandroni.classroom.management.Auth.Service.AuthenticatedUser;
 import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import com.guisandroni.classroom.management.Auth.Service.VerifiedToken;
 import com.guisandroni.classroom.management.Exception.ErrorResponse;
 import com.guisandroni.classroom.management.Exception.InvalidTokenException;
 import com.guisandroni.classroom.management.Exception.TokenExpiredException;
@@ -12,9 +14,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,6 +28,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -34,6 +40,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserDetailsService userDetailsService;
     private final ObjectMapper objectMapper;
 
+    /**
+     * When enabled, the principal is built from the verified token claims and the
+     * user is not reloaded from the database on every request.
+     */
+    @Value("${jwt.claims-only:false}")
+    private boolean claimsOnly;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -52,25 +65,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            VerifiedToken token = jwtService.verify(jwt);
+            userEmail = token.subject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.info("Token passed: User {} authenticated successfully", userEmail);
+                Optional<AuthenticatedUser> claimsPrincipal = claimsOnly
+                        ? AuthenticatedUser.fromToken(token)
+                        : Optional.empty();
+                if (claimsPrincipal.isPresent()) {
+                    AuthenticatedUser principal = claimsPrincipal.get();
+                    authenticate(request, principal, principal.getAuthorities());
+                    log.debug("Token passed: User {} authenticated from token claims", userEmail);
                 } else {
-                    sendErrorResponse(response, request, "Token denied: Invalid token for user");
-                    return;
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+
+                    if (jwtService.isTokenValid(token, userDetails)) {
+                        authenticate(request, userDetails, userDetails.getAuthorities());
+                        log.debug("Token passed: User {} authenticated successfully", userEmail);
+                    } else {
+                        sendErrorResponse(response, request, "Token denied: Invalid token for user");
+                        return;
+                    }
                 }
             }
             filterChain.doFilter(request, response);
@@ -86,6 +101,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private void authenticate(HttpServletRequest request, Object principal, Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     private void sendErrorResponse(HttpServletResponse response, HttpServletRequest request, String message) throws IOException {
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .status(HttpStatus.UNAUTHORIZED.value())
@@ -0,0 +1,57 @@
+package com.guisandroni.classroom.management.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they committed a write, so
+ * they see their own changes even while the replicas lag behind. Spring Boot registers it
+ * on the transaction manager as a {@link TransactionExecutionListener}.
+ * <p>
+ * The window is per instance: a read that lands on another instance may still go to a replica.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maxSize) {
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (recentWriters == null || commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        if (recentWriters == null) {
+            return false;
+        }
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,190 @@
+package com.guisandroni.classroom.management.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions: round-robin over the healthy replicas,
+ * or from the primary when none is healthy or the current user has just written
+ * (see {@link ReadYourWrites}).
+ * <p>
+ * A replica is healthy while it streams from the primary and its lag stays within
+ * {@code maxLag}. Lag is measured in the background every {@code checkInterval}; a streaming
+ * replica that has replayed everything it received counts as not lagging, since the replay
+ * timestamp stops moving while the primary is idle. A replica that lost its primary has
+ * also replayed everything it received, so it is taken out however small its lag looks.
+ * A replica that fails to hand out a connection is taken out until the next successful
+ * check.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /*
+     * NULL when the replica is not streaming. Without pg_read_all_stats the status column
+     * reads NULL, but the row only exists while a WAL receiver is running.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE coalesce(status, 'streaming') = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp())
+            END
+            """;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+
+    public ReplicaDataSource(
+            HikariDataSource primary,
+            List<HikariDataSource> replicaPools,
+            ReadYourWrites readYourWrites,
+            Duration maxLag,
+            Duration checkInterval,
+            MeterRegistry meterRegistry
+    ) {
+        this(primary, replicaPools, readYourWrites, maxLag, checkInterval, meterRegistry, true);
+    }
+
+    private ReplicaDataSource(
+            HikariDataSource primary,
+            List<HikariDataSource> replicaPools,
+            ReadYourWrites readYourWrites,
+            Duration maxLag,
+            Duration checkInterval,
+            MeterRegistry meterRegistry,
+            boolean checkInBackground
+    ) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, checkInterval)).toList();
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Replication lag in seconds, NaN when unknown")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.pool.getPoolName())
+                    .description("Whether read-only transactions are sent to this replica")
+                    .register(meterRegistry);
+        }
+        if (checkInBackground) {
+            this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("replica-health-check").daemon().factory());
+            this.healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.healthCheck = null;
+        }
+    }
+
+    /**
+     * Without the background lag checks: every replica stays out until its lag is reported
+     * through {@link #recordLag}.
+     */
+    static ReplicaDataSource withoutHealthChecks(
+            HikariDataSource primary,
+            List<HikariDataSource> replicaPools,
+            ReadYourWrites readYourWrites,
+            Duration maxLag,
+            MeterRegistry meterRegistry
+    ) {
+        return new ReplicaDataSource(primary, replicaPools, readYourWrites, maxLag, Duration.ofSeconds(1), meterRegistry, false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isPinnedToPrimary()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Replica {} is unavailable, reading from the primary until it recovers", replica.pool.getPoolName(), e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    @Override
+    public void close() {
+        if (healthCheck != null) {
+            healthCheck.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            Double lag;
+            try {
+                lag = replica.jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            } catch (RuntimeException e) {
+                log.debug("Lag check failed for replica {}", replica.pool.getPoolName(), e);
+                lag = null;
+            }
+            recordLag(i, lag);
+        }
+    }
+
+    /**
+     * The outcome of one lag check of the replica at {@code index}: {@code null} when the
+     * check failed or the replica is not streaming.
+     */
+    void recordLag(int index, Double lag) {
+        Replica replica = replicas.get(index);
+        boolean healthy = lag != null && lag <= maxLagSeconds;
+        if (healthy != replica.healthy) {
+            log.info("Replica {} is now {} (lag: {})", replica.pool.getPoolName(), healthy ? "in use" : "out of use",
+                    lag != null ? lag + "s" : "unknown or not streaming");
+        }
+        replica.lagSeconds = lag != null ? lag : Double.NaN;
+        replica.healthy = healthy;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(HikariDataSource pool, Duration checkInterval) {
+            this.pool = pool;
+            this.jdbcTemplate = new JdbcTemplate(pool);
+            this.jdbcTemplate.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.guisandroni.classroom.management.Config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replicas in {@code datasource.replicas.urls} and
+ * everything else to the primary. Off unless {@code datasource.replicas.enabled=true}, in
+ * which case Spring Boot's single data source is used as before.
+ * <p>
+ * The primary pool keeps its {@code spring.datasource.hikari} settings, while every replica
+ * pool is built from {@code datasource.replicas.hikari}. The application sees a
+ * {@link LazyConnectionDataSourceProxy}: Hibernate takes a connection as soon as a
+ * transaction begins, before the transaction is marked read-only, so the physical
+ * connection is only picked at its first statement, from {@link ReplicaDataSource} or from
+ * the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replicas.hikari")
+    public HikariConfig replicaHikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(
+            @Value("${datasource.replicas.read-your-writes:5s}") Duration window,
+            @Value("${datasource.replicas.read-your-writes-max-users:100000}") long maxUsers
+    ) {
+        return new ReadYourWrites(window, maxUsers);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            HikariConfig replicaHikariConfig,
+            DataSourceProperties properties,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls:}") List<String> urls,
+            @Value("${datasource.replicas.max-lag:10s}") Duration maxLag,
+            @Value("${datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval
+    ) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.enabled is set but datasource.replicas.urls is empty");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            replicaHikariConfig.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i));
+            config.setPoolName("replica-" + (i + 1));
+            if (config.getUsername() == null) {
+                config.setUsername(properties.determineUsername());
+                config.setPassword(properties.determinePassword());
+            }
+            // A replica that is down must not keep the application from starting.
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, pools, readYourWrites, maxLag, healthCheckInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            }
+        };
+        routing.setTargetDataSources(Map.of(true, replicaDataSource, false, primaryDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * With open-in-view a session lives for the whole request, and Spring's default is to hold
+     * its connection until the session closes. A request that reads before it writes would
+     * then write through the replica connection of its first transaction. Released
+     * connections also make Hibernate leave the read-only flag off the connection, which is
+     * why routing goes by the transaction rather than by the connection.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
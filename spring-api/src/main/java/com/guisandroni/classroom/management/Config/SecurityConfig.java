@@ -1,5 +1,8 @@
 package com.guisandroni.classroom.management.Config;
 
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Search.DTO.SearchPage;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,10 +36,20 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Redespacho assíncrono dos exports em streaming: a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Rotas públicas
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
+                        .requestMatchers("/api/students/me").hasAnyRole("STUDENT", "ADMIN")
+                        .requestMatchers("/api/students/me/dashboard").hasAnyRole("STUDENT", "ADMIN")
+                        .requestMatchers("/api/trainings/my").hasAnyRole("STUDENT", "ADMIN")
+                        .requestMatchers("/api/resources/my").hasAnyRole("STUDENT", "ADMIN")
+                        .requestMatchers("/api/search").hasAnyRole("STUDENT", "ADMIN")
 
                         .requestMatchers("/api/students").hasRole("ADMIN")
                         .requestMatchers("/api/students/{id}").hasRole("ADMIN")
@@ -44,9 +57,6 @@ public class SecurityConfig {
                         .requestMatchers("/api/resources/**").hasRole("ADMIN")
                         .requestMatchers("/api/enrollments/**").hasRole("ADMIN")
 
-                        .requestMatchers("/api/students/me").hasAnyRole("STUDENT", "ADMIN")
-                        .requestMatchers("/api/trainings/my").hasAnyRole("STUDENT", "ADMIN")
-
                         // Qualquer outra rota autenticada
                         .anyRequest().authenticated()
                 )
@@ -65,7 +75,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "Link", CursorPage.NEXT_CURSOR_HEADER,
+                SearchPage.TRUNCATED_HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,125 @@
+package com.guisandroni.classroom.management.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, from JFR's
+ * {@code jdk.VirtualThreadPinned} events. On Java 21 that is any blocking call made inside
+ * {@code synchronized} or a native frame, and every pinned thread takes one of the few
+ * carriers away from all the others.
+ * <p>
+ * Each event is counted in {@code jvm.threads.virtual.pinned} by the layer it happened in,
+ * the first of JDBC driver, pool, Hibernate or application code found in its stack, and
+ * the most recent ones are listed with their stacks at {@code /actuator/pinning}. On when
+ * virtual threads are, unless {@code diagnostics.pinning.enabled} says otherwise.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnProperty(name = "diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    // The first of these packages found in the stack, from the top, names the layer.
+    private static final List<Map.Entry<String, String>> LAYERS = List.of(
+            Map.entry("org.postgresql.", "jdbc"),
+            Map.entry("com.zaxxer.hikari.", "pool"),
+            Map.entry("org.hibernate.", "hibernate"),
+            Map.entry("com.guisandroni.", "application")
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final int recentEvents;
+    private final ConcurrentLinkedDeque<PinnedEvent> recent = new ConcurrentLinkedDeque<>();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${diagnostics.pinning.threshold:20ms}") Duration threshold,
+            @Value("${diagnostics.pinning.recent-events:50}") int recentEvents
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.recentEvents = recentEvents;
+    }
+
+    @ReadOperation
+    public List<PinnedEvent> recent() {
+        return List.copyOf(recent);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        List<String> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames().stream()
+                .map(VirtualThreadPinningMonitor::format)
+                .toList();
+        String layer = frames.stream()
+                .flatMap(frame -> LAYERS.stream().filter(entry -> frame.startsWith(entry.getKey())))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse("other");
+
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .tag("layer", layer)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        String thread = event.getThread() == null ? null : event.getThread().getJavaName();
+        recent.addFirst(new PinnedEvent(event.getStartTime(), event.getDuration(), thread, layer, frames));
+        while (recent.size() > recentEvents) {
+            recent.pollLast();
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+
+    public record PinnedEvent(Instant startTime, Duration duration, String thread, String layer, List<String> stackTrace) {
+    }
+}
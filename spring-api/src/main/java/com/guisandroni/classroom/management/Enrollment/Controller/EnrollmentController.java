@@ -1,7 +1,14 @@
 package com.guisandroni.classroom.management.Enrollment.Controller;
 
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentImportResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentOutcome;
 import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
 import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.WaitlistEntryResponse;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentImportService;
 import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +16,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,11 +27,25 @@ import java.util.List;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final EnrollmentImportService enrollmentImportService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<EnrollmentResponse>> findAll() {
-        return ResponseEntity.ok(enrollmentService.findAll());
+    public ResponseEntity<List<EnrollmentResponse>> findAll(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return enrollmentService.findPage(classId, studentId, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Long studentId) {
+        return enrollmentService.export(ExportFormat.from(format), classId, studentId);
     }
 
     @GetMapping("/{id}")
@@ -38,10 +61,43 @@ public class EnrollmentController {
     }
 
 
+    @GetMapping("/waitlist/class/{classId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<WaitlistEntryResponse>> findWaitlist(@PathVariable Long classId) {
+        return ResponseEntity.ok(enrollmentService.findWaitlist(classId));
+    }
+
+    /**
+     * 201 with the enrollment, or 202 with the waitlist entry when the class is full.
+     */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<EnrollmentResponse> create(@Valid @RequestBody EnrollmentRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(enrollmentService.create(request));
+    public ResponseEntity<?> create(@Valid @RequestBody EnrollmentRequest request) {
+        EnrollmentOutcome outcome = enrollmentService.create(request);
+        if (outcome.getEnrollment() == null) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(outcome.getWaitlistEntry());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(outcome.getEnrollment());
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkEnrollmentResponse> createBulk(@Valid @RequestBody BulkEnrollmentRequest request) {
+        return ResponseEntity.ok(enrollmentService.createBulk(request));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentImportResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(enrollmentImportService.importCsv(body));
+    }
+
+    @GetMapping("/imports/{importId}/rejected")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportRejected(
+            @PathVariable Long importId,
+            @RequestParam(defaultValue = "csv") String format) {
+        return enrollmentImportService.exportRejected(importId, ExportFormat.from(format));
     }
 
     @DeleteMapping("/{id}")
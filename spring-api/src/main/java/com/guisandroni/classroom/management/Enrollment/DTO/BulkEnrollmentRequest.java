@@ -0,0 +1,30 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Either {@code classId} with {@code studentIds} (a cohort into one class) or
+ * {@code studentId} with {@code classIds} (one student into several classes).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRequest {
+
+    private Long classId;
+
+    @Size(max = 5000, message = "At most 5000 student IDs per request")
+    private List<Long> studentIds;
+
+    private Long studentId;
+
+    @Size(max = 5000, message = "At most 5000 class IDs per request")
+    private List<Long> classIds;
+}
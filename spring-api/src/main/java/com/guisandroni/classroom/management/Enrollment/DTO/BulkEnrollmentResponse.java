@@ -0,0 +1,20 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResponse {
+    private int requested;
+    private int enrolled;
+    private int waitlisted;
+    private int conflicting;
+    private List<BulkEnrollmentResult> results;
+}
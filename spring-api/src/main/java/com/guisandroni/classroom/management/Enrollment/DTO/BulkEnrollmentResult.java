@@ -0,0 +1,22 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import com.guisandroni.classroom.management.Enrollment.Enum.BulkEnrollmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResult {
+    private Long classId;
+    private Long studentId;
+    private BulkEnrollmentStatus status;
+    private Long enrollmentId;
+    // Set with SCHEDULE_CONFLICT: the student's classes that overlap this one
+    private List<Long> conflictingClassIds;
+}
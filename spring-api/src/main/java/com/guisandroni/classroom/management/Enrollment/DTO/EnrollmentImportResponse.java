@@ -0,0 +1,20 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentImportResponse {
+    private Long importId;
+    private long total;
+    private long enrolled;
+    private long waitlisted;
+    private long skipped;
+    private long rejected;
+    private String rejectedRowsUrl;
+}
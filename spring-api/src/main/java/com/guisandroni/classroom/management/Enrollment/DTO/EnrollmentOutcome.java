@@ -0,0 +1,19 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single enrollment request: exactly one of the fields is set, depending on
+ * whether the class still had a free seat.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentOutcome {
+    private EnrollmentResponse enrollment;
+    private WaitlistEntryResponse waitlistEntry;
+}
@@ -0,0 +1,21 @@
+package com.guisandroni.classroom.management.Enrollment.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryResponse {
+    private Long id;
+    private Long classId;
+    private Long studentId;
+    private String studentName;
+    private int position;
+    private LocalDateTime createdAt;
+}
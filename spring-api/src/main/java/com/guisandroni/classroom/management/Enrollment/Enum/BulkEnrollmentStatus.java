@@ -0,0 +1,10 @@
+package com.guisandroni.classroom.management.Enrollment.Enum;
+
+public enum BulkEnrollmentStatus {
+    ENROLLED,
+    WAITLISTED,
+    ALREADY_ENROLLED,
+    SCHEDULE_CONFLICT,
+    CLASS_NOT_FOUND,
+    STUDENT_NOT_FOUND
+}
@@ -0,0 +1,61 @@
+package com.guisandroni.classroom.management.Enrollment.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based JDBC access for bulk enrollment: existence checks take one query per table
+ * and all pairs are inserted by a single statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentBulkRepository {
+
+    private static final String INSERT_PAIRS = """
+            INSERT INTO enrollments (class_id, student_id)
+            SELECT * FROM unnest(?::bigint[], ?::bigint[])
+            ON CONFLICT ON CONSTRAINT uk_enrollment DO NOTHING
+            RETURNING id, class_id, student_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record EnrollmentPair(Long classId, Long studentId) {
+    }
+
+    public record InsertedEnrollment(Long id, Long classId, Long studentId) {
+    }
+
+    public Set<Long> findExistingClassIds(Collection<Long> ids) {
+        return findExistingIds("SELECT id FROM classes WHERE id = ANY(?)", ids);
+    }
+
+    public Set<Long> findExistingStudentIds(Collection<Long> ids) {
+        return findExistingIds("SELECT id FROM students WHERE id = ANY(?)", ids);
+    }
+
+    /**
+     * Inserts every pair in one statement. Pairs that already exist are skipped by
+     * {@code uk_enrollment} and are missing from the returned list.
+     */
+    public List<InsertedEnrollment> insertIgnoringExisting(List<EnrollmentPair> pairs) {
+        Long[] classIds = pairs.stream().map(EnrollmentPair::classId).toArray(Long[]::new);
+        Long[] studentIds = pairs.stream().map(EnrollmentPair::studentId).toArray(Long[]::new);
+        return jdbcTemplate.query(INSERT_PAIRS,
+                (rs, rowNum) -> new InsertedEnrollment(rs.getLong("id"), rs.getLong("class_id"), rs.getLong("student_id")),
+                classIds, studentIds);
+    }
+
+    private Set<Long> findExistingIds(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, (Object) ids.toArray(Long[]::new)));
+    }
+}
@@ -0,0 +1,246 @@
+package com.guisandroni.classroom.management.Enrollment.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Set-based JDBC access for CSV roster imports. All methods except {@link #deleteOlderThan}
+ * and {@link #exists} must run in the same transaction: the staging tables are temporary
+ * and are dropped on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentImportRepository {
+
+    private static final String RESOLVE = """
+            CREATE TEMP TABLE enrollment_import_resolved ON COMMIT DROP AS
+            SELECT r.line, r.email, r.class_name, s.id AS student_id, c.class_id, c.matches, NULL::text AS conflict
+            FROM (SELECT line, btrim(%s) AS email, btrim(%s) AS class_name FROM enrollment_import_rows) r
+            LEFT JOIN students s ON s.email = r.email
+            LEFT JOIN (SELECT name, min(id) AS class_id, count(*) AS matches FROM classes GROUP BY name) c
+                   ON c.name = r.class_name
+            """;
+
+    /*
+     * The rule of ScheduleConflictRepository, run against the staging table: a pair
+     * conflicts with the classes the student is enrolled in or waitlisted for, and with the
+     * pairs of earlier lines for the same student that were themselves accepted.
+     *
+     * Only the pairs that overlap something take part in the walk; sorted by start, a pair
+     * overlaps another one of the file when one starting before it ends after its start, or
+     * the next one starts before its end. The recursive walk then takes each student's
+     * remaining pairs in the order of their first line, carrying the schedule accepted so
+     * far as a multirange, so the file never leaves the database.
+     */
+    private static final String MARK_CONFLICTS = """
+            WITH RECURSIVE pairs AS (
+                SELECT p.class_id, p.student_id, p.line, tsrange(c.start_date, c.end_date) AS schedule
+                FROM (SELECT class_id, student_id, min(line) AS line
+                      FROM enrollment_import_resolved
+                      WHERE student_id IS NOT NULL AND matches = 1
+                      GROUP BY class_id, student_id) p
+                JOIN classes c ON c.id = p.class_id
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM enrollments e WHERE e.class_id = p.class_id AND e.student_id = p.student_id)
+            ),
+            locked AS (
+                SELECT s.id
+                FROM students s
+                WHERE s.id IN (SELECT student_id FROM pairs)
+                ORDER BY s.id
+                FOR NO KEY UPDATE OF s
+            ),
+            taken AS (
+                SELECT l.id AS student_id, o.id, o.name, o.start_date, o.end_date,
+                       tsrange(o.start_date, o.end_date) AS schedule
+                FROM locked l
+                CROSS JOIN LATERAL (
+                    SELECT class_id FROM enrollments WHERE student_id = l.id
+                    UNION ALL
+                    SELECT class_id FROM class_waitlist WHERE student_id = l.id
+                ) t
+                JOIN classes o ON o.id = t.class_id
+            ),
+            booked AS (
+                SELECT student_id, range_agg(schedule) AS schedule FROM taken GROUP BY student_id
+            ),
+            overlapping AS (
+                SELECT p.class_id, p.student_id, p.schedule,
+                       row_number() OVER (PARTITION BY p.student_id ORDER BY p.line) AS k
+                FROM (
+                    SELECT class_id, student_id, line, schedule,
+                           max(upper(schedule)) OVER (PARTITION BY student_id ORDER BY lower(schedule), upper(schedule)
+                               ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) > lower(schedule)
+                           OR lead(lower(schedule)) OVER (PARTITION BY student_id ORDER BY lower(schedule), upper(schedule))
+                               < upper(schedule) AS shared
+                    FROM pairs
+                ) p
+                LEFT JOIN booked b ON b.student_id = p.student_id
+                WHERE p.shared OR p.schedule && b.schedule
+            ),
+            walk AS (
+                SELECT o.student_id, 0::bigint AS k, NULL::bigint AS class_id, NULL::tsrange AS schedule,
+                       false AS rejected, coalesce(b.schedule, '{}') AS accepted
+                FROM (SELECT DISTINCT student_id FROM overlapping) o
+                LEFT JOIN booked b ON b.student_id = o.student_id
+                UNION ALL
+                SELECT p.student_id, p.k, p.class_id, p.schedule, p.schedule && w.accepted,
+                       CASE WHEN p.schedule && w.accepted THEN w.accepted ELSE w.accepted + tsmultirange(p.schedule) END
+                FROM walk w
+                JOIN overlapping p ON p.student_id = w.student_id AND p.k = w.k + 1
+            ),
+            blocking AS (
+                SELECT w.class_id, w.student_id, t.id, t.name, t.start_date, t.end_date
+                FROM walk w
+                JOIN taken t ON t.student_id = w.student_id AND t.id <> w.class_id AND t.schedule && w.schedule
+                WHERE w.rejected
+                UNION
+                SELECT w.class_id, w.student_id, c.id, c.name, c.start_date, c.end_date
+                FROM walk w
+                JOIN walk a ON a.student_id = w.student_id AND a.k < w.k AND NOT a.rejected
+                    AND a.schedule && w.schedule
+                JOIN classes c ON c.id = a.class_id
+                WHERE w.rejected
+            )
+            UPDATE enrollment_import_resolved r
+            SET conflict = b.reason
+            FROM (
+                SELECT class_id, student_id, 'Schedule conflict with ' || string_agg(
+                           name || ' (' || to_char(start_date, 'YYYY-MM-DD"T"HH24:MI') || ' to '
+                               || to_char(end_date, 'YYYY-MM-DD"T"HH24:MI') || ')', ', ' ORDER BY id) AS reason
+                FROM blocking
+                GROUP BY class_id, student_id
+            ) b
+            WHERE r.class_id = b.class_id AND r.student_id = b.student_id
+            """;
+
+    private static final String MERGE = """
+            WITH inserted AS (
+                INSERT INTO enrollments (class_id, student_id)
+                SELECT DISTINCT class_id, student_id FROM enrollment_import_resolved
+                WHERE student_id IS NOT NULL AND matches = 1 AND conflict IS NULL
+                ON CONFLICT ON CONSTRAINT uk_enrollment DO NOTHING
+                RETURNING id, class_id
+            )
+            INSERT INTO enrollment_import_inserted SELECT id, class_id FROM inserted
+            """;
+
+    private static final String SAVE_REJECTIONS = """
+            INSERT INTO enrollment_import_rejections (import_id, line, email, class_name, reason)
+            SELECT ?, line, email, class_name,
+                   CASE
+                       WHEN coalesce(email, '') = '' THEN 'Missing email'
+                       WHEN coalesce(class_name, '') = '' THEN 'Missing class name'
+                       WHEN student_id IS NULL THEN 'No student with this email'
+                       WHEN class_id IS NULL THEN 'No class with this name'
+                       WHEN matches > 1 THEN 'Class name matches ' || matches || ' classes'
+                       ELSE conflict
+                   END
+            FROM enrollment_import_resolved
+            WHERE student_id IS NULL OR class_id IS NULL OR matches > 1 OR conflict IS NOT NULL
+            """;
+
+    private static final String FINISH = """
+            UPDATE enrollment_imports
+            SET total_rows = ?, enrolled_rows = ?, waitlisted_rows = ?, skipped_rows = ?, rejected_rows = ?
+            WHERE id = ?
+            """;
+
+    /** New enrollments of the current import, with {@code id} and {@code class_id} columns. */
+    public static final String INSERTED_TABLE = "enrollment_import_inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long createImport() {
+        return jdbcTemplate.queryForObject("INSERT INTO enrollment_imports DEFAULT VALUES RETURNING id", Long.class);
+    }
+
+    /**
+     * Creates the staging table with one text column per CSV column and streams the
+     * remaining CSV lines into it with {@code COPY ... FROM STDIN}. Each row gets its line
+     * number in the original file, counting the header as line 1.
+     *
+     * @return the number of rows copied
+     */
+    public long copyRows(Reader csv, int columnCount) {
+        String columns = IntStream.rangeClosed(1, columnCount)
+                .mapToObj(this::column)
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("CREATE TEMP TABLE enrollment_import_rows ("
+                + "line BIGINT GENERATED ALWAYS AS IDENTITY (START WITH 2), "
+                + IntStream.rangeClosed(1, columnCount).mapToObj(i -> column(i) + " TEXT").collect(Collectors.joining(", "))
+                + ") ON COMMIT DROP");
+
+        String copy = "COPY enrollment_import_rows (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Looks up the student by email and the class by name for every staged row, in one
+     * statement. Class names are not unique, so the number of matching classes is kept.
+     */
+    public void resolve(int emailColumn, int classNameColumn) {
+        jdbcTemplate.execute(RESOLVE.formatted(column(emailColumn + 1), column(classNameColumn + 1)));
+    }
+
+    /**
+     * Keeps the resolved pairs that overlap the student's schedule out of the merge; every
+     * line of such a pair is rejected with the classes in the way. Of two overlapping
+     * lines for the same student, the first one is kept.
+     */
+    public void markConflicts() {
+        jdbcTemplate.update(MARK_CONFLICTS);
+    }
+
+    /**
+     * Inserts every resolved pair that is not enrolled yet and has no conflict, and lists the new
+     * enrollments in {@link #INSERTED_TABLE}, so they can be counted against class capacity.
+     *
+     * @return the number of enrollments created
+     */
+    public long mergeEnrollments() {
+        jdbcTemplate.execute("CREATE TEMP TABLE " + INSERTED_TABLE + " (id BIGINT, class_id BIGINT) ON COMMIT DROP");
+        return jdbcTemplate.update(MERGE);
+    }
+
+    /**
+     * @return the number of rows rejected
+     */
+    public long saveRejections(long importId) {
+        return jdbcTemplate.update(SAVE_REJECTIONS, importId);
+    }
+
+    public void finish(long importId, long total, long enrolled, long waitlisted, long skipped, long rejected) {
+        jdbcTemplate.update(FINISH, total, enrolled, waitlisted, skipped, rejected, importId);
+    }
+
+    public boolean exists(long importId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM enrollment_imports WHERE id = ?)", Boolean.class, importId));
+    }
+
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM enrollment_imports WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    private String column(int index) {
+        return "c" + index;
+    }
+}
@@ -1,21 +1,64 @@
 package com.guisandroni.classroom.management.Enrollment.Repository;
 
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
 import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse(" +
+            "e.id, c.id, c.name, s.id, s.name, s.email) " +
+            "FROM Enrollment e JOIN e.classEntity c JOIN e.studentEntity s ";
+
     List<Enrollment> findByClassEntityId(Long classId);
     List<Enrollment> findByStudentEntityId(Long studentId);
     Optional<Enrollment> findByClassEntityIdAndStudentEntityId(Long classId, Long studentId);
     boolean existsByClassEntityIdAndStudentEntityId(Long classId, Long studentId);
 
+    /*
+     * One query per filter, each led by the (class_id, id) or (student_id, id) index of V4,
+     * instead of IS NULL OR branches that a generic plan cannot use as index conditions.
+     */
+    @Query(RESPONSE_SELECT + "WHERE e.id > :afterId ORDER BY e.id")
+    List<EnrollmentResponse> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE c.id = :classId AND e.id > :afterId ORDER BY e.id")
+    List<EnrollmentResponse> findPageByClassId(@Param("classId") Long classId,
+                                               @Param("afterId") long afterId,
+                                               Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE s.id = :studentId AND e.id > :afterId ORDER BY e.id")
+    List<EnrollmentResponse> findPageByStudentId(@Param("studentId") Long studentId,
+                                                 @Param("afterId") long afterId,
+                                                 Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE c.id = :classId AND s.id = :studentId AND e.id > :afterId ORDER BY e.id")
+    List<EnrollmentResponse> findPageByClassIdAndStudentId(@Param("classId") Long classId,
+                                                           @Param("studentId") Long studentId,
+                                                           @Param("afterId") long afterId,
+                                                           Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :id")
+    Optional<EnrollmentResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE c.id = :classId ORDER BY e.id")
+    List<EnrollmentResponse> findResponsesByClassId(@Param("classId") Long classId);
+
+    @Query(RESPONSE_SELECT + "WHERE s.id = :studentId ORDER BY e.id")
+    List<EnrollmentResponse> findResponsesByStudentId(@Param("studentId") Long studentId);
+
+    @Query(RESPONSE_SELECT + "WHERE s.id IN :studentIds ORDER BY e.id")
+    List<EnrollmentResponse> findResponsesByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
     @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.studentEntity.id = :studentId AND e.classEntity.training.id = :trainingId")
     boolean existsByStudentIdAndTrainingId(@Param("studentId") Long studentId, @Param("trainingId") Long trainingId);
 }
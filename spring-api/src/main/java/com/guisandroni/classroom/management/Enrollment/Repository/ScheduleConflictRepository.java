@@ -0,0 +1,132 @@
+package com.guisandroni.classroom.management.Enrollment.Repository;
+
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository.EnrollmentPair;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the classes that overlap in time with the ones students are about to be enrolled
+ * in, for any number of pairs in one query. Schedules are compared as
+ * {@code tsrange(start_date, end_date)}, half-open, like the GiST index of V10.
+ * <p>
+ * A student's classes are those they are enrolled in or waitlisted for, since a waitlist
+ * entry turns into an enrollment without another check. The student rows are locked until
+ * the end of the transaction, so two concurrent requests for the same student cannot both
+ * pass the check with overlapping classes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScheduleConflictRepository {
+
+    /*
+     * Pairs that already exist are left out, they are reported as already enrolled. A pair
+     * also conflicts with an earlier pair of the same request for the same student; which
+     * of those were actually accepted is up to the caller.
+     *
+     * The lateral join walks each student's own classes by index. An IN (...) over the
+     * requested students is estimated too large for cohorts and ends in full scans of
+     * enrollments and classes.
+     */
+    private static final String FIND_CONFLICTS = """
+            WITH requested AS (
+                SELECT r.n, r.class_id, r.student_id, tsrange(c.start_date, c.end_date) AS schedule
+                FROM unnest(?::bigint[], ?::bigint[]) WITH ORDINALITY AS r(class_id, student_id, n)
+                JOIN classes c ON c.id = r.class_id
+                JOIN students s ON s.id = r.student_id
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM enrollments e WHERE e.class_id = r.class_id AND e.student_id = r.student_id)
+                ORDER BY r.student_id
+                FOR NO KEY UPDATE OF s
+            ),
+            taken AS (
+                SELECT s.student_id, o.id, o.name, o.start_date, o.end_date
+                FROM (SELECT DISTINCT student_id FROM requested) s
+                CROSS JOIN LATERAL (
+                    SELECT class_id FROM enrollments WHERE student_id = s.student_id
+                    UNION ALL
+                    SELECT class_id FROM class_waitlist WHERE student_id = s.student_id
+                ) t
+                JOIN classes o ON o.id = t.class_id
+            )
+            SELECT r.n, NULL::bigint AS other_n, t.id, t.name, t.start_date, t.end_date
+            FROM requested r
+            JOIN taken t ON t.student_id = r.student_id AND t.id <> r.class_id
+            WHERE tsrange(t.start_date, t.end_date) && r.schedule
+            UNION ALL
+            SELECT r.n, q.n, o.id, o.name, o.start_date, o.end_date
+            FROM requested r
+            JOIN requested q ON q.student_id = r.student_id AND q.n < r.n
+                AND q.class_id <> r.class_id AND q.schedule && r.schedule
+            JOIN classes o ON o.id = q.class_id
+            ORDER BY 1, 3
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * One class that overlaps the pair at {@code index}. {@code otherIndex} is set when the
+     * class comes from another pair of the same request rather than from the database.
+     */
+    public record ScheduleConflict(int index, Integer otherIndex, Long classId, String className,
+                                   LocalDateTime startDate, LocalDateTime endDate) {
+    }
+
+    /**
+     * Returns every conflict of the given pairs, by position in the list. Pairs whose class
+     * or student does not exist have none.
+     */
+    public List<ScheduleConflict> findConflicts(List<EnrollmentPair> pairs) {
+        if (pairs.isEmpty()) {
+            return List.of();
+        }
+        Long[] classIds = pairs.stream().map(EnrollmentPair::classId).toArray(Long[]::new);
+        Long[] studentIds = pairs.stream().map(EnrollmentPair::studentId).toArray(Long[]::new);
+        return jdbcTemplate.query(FIND_CONFLICTS, (rs, rowNum) -> {
+            Long otherN = rs.getObject("other_n", Long.class);
+            return new ScheduleConflict(
+                    rs.getInt("n") - 1,
+                    otherN == null ? null : otherN.intValue() - 1,
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    rs.getObject("start_date", LocalDateTime.class),
+                    rs.getObject("end_date", LocalDateTime.class));
+        }, classIds, studentIds);
+    }
+
+    /**
+     * The pairs that cannot be enrolled because of the student's schedule, with the classes
+     * in the way. A class that overlaps an earlier pair of the list only counts when that
+     * pair is itself accepted, so of two overlapping pairs the first one is kept.
+     */
+    public Map<EnrollmentPair, List<ScheduleConflict>> findBlocked(List<EnrollmentPair> pairs) {
+        Map<Integer, List<ScheduleConflict>> byIndex = new HashMap<>();
+        for (ScheduleConflict conflict : findConflicts(pairs)) {
+            byIndex.computeIfAbsent(conflict.index(), index -> new ArrayList<>()).add(conflict);
+        }
+        Set<Integer> rejected = new HashSet<>();
+        Map<EnrollmentPair, List<ScheduleConflict>> blocked = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            Map<Long, ScheduleConflict> byClass = new LinkedHashMap<>();
+            for (ScheduleConflict conflict : byIndex.getOrDefault(i, List.of())) {
+                if (conflict.otherIndex() == null || !rejected.contains(conflict.otherIndex())) {
+                    byClass.putIfAbsent(conflict.classId(), conflict);
+                }
+            }
+            if (!byClass.isEmpty()) {
+                rejected.add(i);
+                blocked.put(pairs.get(i), List.copyOf(byClass.values()));
+            }
+        }
+        return blocked;
+    }
+}
@@ -0,0 +1,258 @@
+package com.guisandroni.classroom.management.Enrollment.Repository;
+
+import com.guisandroni.classroom.management.Common.CatalogCache;
+import com.guisandroni.classroom.management.Enrollment.DTO.WaitlistEntryResponse;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository.EnrollmentPair;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Seat accounting for classes with a capacity, and the waitlist behind them.
+ * <p>
+ * {@code classes.seats_taken} is only changed here, always in the same transaction as the
+ * enrollments it counts and always by a single conditional statement, so concurrent
+ * requests serialize on the class row for the length of one update rather than racing a
+ * read-then-write. {@code ck_classes_seats_taken} backs this up in the database.
+ * Every change evicts the affected classes from the second-level cache.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeatAllocationRepository {
+
+    private static final String TRY_RESERVE = """
+            UPDATE classes SET seats_taken = seats_taken + 1
+            WHERE id = ? AND (capacity IS NULL OR seats_taken < capacity)
+            """;
+
+    private static final String RELEASE = """
+            UPDATE classes SET seats_taken = seats_taken - 1
+            WHERE id = ?
+            """;
+
+    /*
+     * Gives back every seat held by a set of students, one decrement per class. Classes
+     * are locked in id order, like in ALLOCATE, so concurrent multi-class changes cannot
+     * deadlock.
+     */
+    private static final String RELEASE_STUDENTS = """
+            WITH released AS (
+                SELECT class_id, count(*) AS seats FROM enrollments
+                WHERE student_id = ANY(?)
+                GROUP BY class_id
+            ),
+            locked AS (
+                SELECT id FROM classes
+                WHERE id IN (SELECT class_id FROM released)
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE classes c SET seats_taken = c.seats_taken - r.seats
+            FROM released r JOIN locked l ON l.id = r.class_id
+            WHERE c.id = r.class_id
+            RETURNING c.id
+            """;
+
+    /*
+     * Counts a set of freshly inserted enrollments against capacity. Seats are granted per
+     * class in insertion order; enrollments beyond the free seats are deleted again and
+     * moved to the waitlist. Inserting first and trimming afterwards keeps the count exact
+     * when some of the requested pairs turned out to exist already.
+     */
+    private static final String ALLOCATE = """
+            WITH fresh AS (
+                SELECT id, class_id, row_number() OVER (PARTITION BY class_id ORDER BY id) AS n
+                FROM %s
+            ),
+            demand AS (
+                SELECT class_id, count(*) AS wanted FROM fresh GROUP BY class_id
+            ),
+            locked AS (
+                SELECT c.id, c.capacity, c.seats_taken FROM classes c
+                WHERE c.id IN (SELECT class_id FROM demand)
+                ORDER BY c.id
+                FOR UPDATE
+            ),
+            granted AS (
+                UPDATE classes c SET seats_taken = c.seats_taken + g.granted
+                FROM (SELECT l.id,
+                             CASE WHEN l.capacity IS NULL THEN d.wanted
+                                  ELSE least(d.wanted, greatest(l.capacity - l.seats_taken, 0)) END AS granted
+                      FROM locked l JOIN demand d ON d.class_id = l.id) g
+                WHERE c.id = g.id
+                RETURNING c.id AS class_id, g.granted
+            ),
+            overflow AS (
+                DELETE FROM enrollments e
+                USING fresh f JOIN granted g ON g.class_id = f.class_id
+                WHERE e.id = f.id AND f.n > g.granted
+                RETURNING e.class_id, e.student_id
+            ),
+            waitlisted AS (
+                INSERT INTO class_waitlist (class_id, student_id)
+                SELECT class_id, student_id FROM overflow
+                ON CONFLICT ON CONSTRAINT uk_class_waitlist DO NOTHING
+            )
+            """;
+
+    /*
+     * Moves waitlisted students into the free seats of one class, oldest entry first. A
+     * class without capacity gets LIMIT NULL, which promotes everyone. Entries of students
+     * who are already enrolled are dropped rather than spending a free seat.
+     */
+    private static final String PROMOTE = """
+            WITH locked AS (
+                SELECT capacity, seats_taken FROM classes WHERE id = ? FOR UPDATE
+            ),
+            stale AS (
+                DELETE FROM class_waitlist w
+                WHERE w.class_id = ? AND EXISTS (
+                    SELECT 1 FROM enrollments e WHERE e.class_id = w.class_id AND e.student_id = w.student_id)
+            ),
+            next AS (
+                DELETE FROM class_waitlist
+                WHERE id IN (SELECT w.id FROM class_waitlist w
+                             WHERE w.class_id = ? AND NOT EXISTS (
+                                 SELECT 1 FROM enrollments e WHERE e.class_id = w.class_id AND e.student_id = w.student_id)
+                             ORDER BY w.id
+                             LIMIT (SELECT CASE WHEN capacity IS NULL THEN NULL
+                                                ELSE greatest(capacity - seats_taken, 0) END FROM locked))
+                RETURNING class_id, student_id
+            ),
+            promoted AS (
+                INSERT INTO enrollments (class_id, student_id)
+                SELECT class_id, student_id FROM next
+                ON CONFLICT ON CONSTRAINT uk_enrollment DO NOTHING
+                RETURNING class_id, student_id
+            ),
+            seats AS (
+                UPDATE classes SET seats_taken = seats_taken + (SELECT count(*) FROM promoted)
+                WHERE id = ?
+            )
+            SELECT class_id, student_id FROM promoted
+            """;
+
+    private static final String ADD_TO_WAITLIST = """
+            INSERT INTO class_waitlist (class_id, student_id) VALUES (?, ?)
+            ON CONFLICT ON CONSTRAINT uk_class_waitlist DO NOTHING
+            """;
+
+    private static final String FIND_WAITLIST_ENTRY = """
+            SELECT w.id, w.class_id, w.student_id, s.name, w.created_at,
+                   (SELECT count(*) FROM class_waitlist x WHERE x.class_id = w.class_id AND x.id <= w.id) AS position
+            FROM class_waitlist w
+            JOIN students s ON s.id = w.student_id
+            WHERE w.class_id = ? AND w.student_id = ?
+            """;
+
+    private static final String FIND_WAITLIST = """
+            SELECT w.id, w.class_id, w.student_id, s.name, w.created_at,
+                   row_number() OVER (ORDER BY w.id) AS position
+            FROM class_waitlist w
+            JOIN students s ON s.id = w.student_id
+            WHERE w.class_id = ?
+            ORDER BY w.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
+
+    /**
+     * Takes one seat if the class has one free. The class row stays locked until the
+     * surrounding transaction ends.
+     */
+    public boolean tryReserve(Long classId) {
+        boolean reserved = jdbcTemplate.update(TRY_RESERVE, classId) == 1;
+        if (reserved) {
+            catalogCache.evictClass(classId);
+        }
+        return reserved;
+    }
+
+    public void release(Long classId) {
+        jdbcTemplate.update(RELEASE, classId);
+        catalogCache.evictClass(classId);
+    }
+
+    /**
+     * Gives back the seats of every class the students are enrolled in, ahead of deleting
+     * the students, and returns those class ids.
+     */
+    public List<Long> releaseStudents(Collection<Long> studentIds) {
+        List<Long> classIds = jdbcTemplate.queryForList(
+                RELEASE_STUDENTS, Long.class, (Object) studentIds.toArray(Long[]::new));
+        catalogCache.evictClasses(classIds);
+        return classIds;
+    }
+
+    /**
+     * Counts the given new enrollments against capacity and moves the ones that did not
+     * get a seat to the waitlist.
+     *
+     * @return the pairs that were waitlisted instead of enrolled
+     */
+    public List<EnrollmentPair> allocate(List<Long> enrollmentIds) {
+        if (enrollmentIds.isEmpty()) {
+            return List.of();
+        }
+        List<EnrollmentPair> overflow = jdbcTemplate.query(
+                ALLOCATE.formatted("enrollments WHERE id = ANY(?)") + "SELECT class_id, student_id FROM overflow",
+                (rs, rowNum) -> new EnrollmentPair(rs.getLong("class_id"), rs.getLong("student_id")),
+                (Object) enrollmentIds.toArray(Long[]::new));
+        catalogCache.evictAllClasses();
+        return overflow;
+    }
+
+    /**
+     * Same as {@link #allocate} for new enrollments listed in a table with
+     * {@code id} and {@code class_id} columns, for batches too large to pass as an array.
+     *
+     * @return the number of enrollments waitlisted instead
+     */
+    public long allocateListed(String table) {
+        Long waitlisted = jdbcTemplate.queryForObject(
+                ALLOCATE.formatted(table) + "SELECT count(*) FROM overflow", Long.class);
+        catalogCache.evictAllClasses();
+        return waitlisted != null ? waitlisted : 0;
+    }
+
+    /**
+     * @return the pairs that were enrolled from the waitlist
+     */
+    public List<EnrollmentPair> promote(Long classId) {
+        List<EnrollmentPair> promoted = jdbcTemplate.query(PROMOTE,
+                (rs, rowNum) -> new EnrollmentPair(rs.getLong("class_id"), rs.getLong("student_id")),
+                classId, classId, classId, classId);
+        catalogCache.evictClass(classId);
+        return promoted;
+    }
+
+    /**
+     * Adds the student to the end of the waitlist, or keeps their place if they are
+     * already on it, and returns the entry with its 1-based position.
+     */
+    public WaitlistEntryResponse addToWaitlist(Long classId, Long studentId) {
+        jdbcTemplate.update(ADD_TO_WAITLIST, classId, studentId);
+        return jdbcTemplate.queryForObject(FIND_WAITLIST_ENTRY, this::toWaitlistEntry, classId, studentId);
+    }
+
+    public List<WaitlistEntryResponse> findWaitlist(Long classId) {
+        return jdbcTemplate.query(FIND_WAITLIST, this::toWaitlistEntry, classId);
+    }
+
+    private WaitlistEntryResponse toWaitlistEntry(ResultSet rs, int rowNum) throws SQLException {
+        return WaitlistEntryResponse.builder()
+                .id(rs.getLong("id"))
+                .classId(rs.getLong("class_id"))
+                .studentId(rs.getLong("student_id"))
+                .studentName(rs.getString("name"))
+                .position(rs.getInt("position"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+}
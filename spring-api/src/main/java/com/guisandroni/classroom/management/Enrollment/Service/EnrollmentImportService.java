@@ -0,0 +1,146 @@
+package com.guisandroni.classroom.management.Enrollment.Service;
+
+import com.guisandroni.classroom.management.Common.Csv;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.JdbcExporter;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentImportResponse;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentImportRepository;
+import com.guisandroni.classroom.management.Enrollment.Repository.SeatAllocationRepository;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardCache;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Imports a class roster from CSV. The upload is streamed into a temporary staging table
+ * with {@code COPY}, resolved against students and classes in one statement and merged
+ * into enrollments in another, so the cost does not depend on round trips per row and the
+ * file is never held in memory. Pairs that overlap the student's schedule are rejected like
+ * in bulk enrollment, checked in one statement for the whole file. Rejected rows are kept for
+ * download.
+ */
+@Slf4j
+@Service
+public class EnrollmentImportService {
+
+    private static final int MAX_COLUMNS = 50;
+
+    private static final String REJECTED_SQL = """
+            SELECT line, email, class_name AS "className", reason
+            FROM enrollment_import_rejections
+            WHERE import_id = ?
+            ORDER BY line
+            """;
+
+    private final EnrollmentImportRepository enrollmentImportRepository;
+    private final SeatAllocationRepository seatAllocationRepository;
+    private final JdbcExporter jdbcExporter;
+    private final StudentDashboardCache dashboardCache;
+    private final Duration retention;
+
+    public EnrollmentImportService(
+            EnrollmentImportRepository enrollmentImportRepository,
+            SeatAllocationRepository seatAllocationRepository,
+            JdbcExporter jdbcExporter,
+            StudentDashboardCache dashboardCache,
+            @Value("${enrollments.import.retention:7d}") Duration retention
+    ) {
+        this.enrollmentImportRepository = enrollmentImportRepository;
+        this.seatAllocationRepository = seatAllocationRepository;
+        this.jdbcExporter = jdbcExporter;
+        this.dashboardCache = dashboardCache;
+        this.retention = retention;
+    }
+
+    /**
+     * Expects a header row with an {@code email} and a {@code className} (or {@code class})
+     * column, in any order; other columns are ignored.
+     */
+    @Transactional
+    public EnrollmentImportResponse importCsv(InputStream body) {
+        int purged = enrollmentImportRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} expired enrollment imports", purged);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = readHeader(reader);
+        int emailColumn = header.indexOf("email");
+        int classNameColumn = header.indexOf("classname") >= 0 ? header.indexOf("classname") : header.indexOf("class");
+        if (emailColumn < 0 || classNameColumn < 0) {
+            throw new BusinessException("CSV header must contain email and className");
+        }
+        if (header.size() > MAX_COLUMNS) {
+            throw new BusinessException("CSV must not have more than " + MAX_COLUMNS + " columns");
+        }
+
+        long importId = enrollmentImportRepository.createImport();
+        long total;
+        try {
+            total = enrollmentImportRepository.copyRows(reader, header.size());
+        } catch (DataAccessException e) {
+            throw new BusinessException("Malformed CSV: " + e.getMostSpecificCause().getMessage());
+        } catch (UncheckedIOException e) {
+            throw new BusinessException("Could not read CSV payload: " + e.getCause().getMessage());
+        }
+        enrollmentImportRepository.resolve(emailColumn, classNameColumn);
+        enrollmentImportRepository.markConflicts();
+        long inserted = enrollmentImportRepository.mergeEnrollments();
+        long waitlisted = seatAllocationRepository.allocateListed(EnrollmentImportRepository.INSERTED_TABLE);
+        long enrolled = inserted - waitlisted;
+        long rejected = enrollmentImportRepository.saveRejections(importId);
+        long skipped = total - rejected - inserted;
+        enrollmentImportRepository.finish(importId, total, enrolled, waitlisted, skipped, rejected);
+        if (enrolled > 0) {
+            dashboardCache.evictAll();
+        }
+
+        return EnrollmentImportResponse.builder()
+                .importId(importId)
+                .total(total)
+                .enrolled(enrolled)
+                .waitlisted(waitlisted)
+                .skipped(skipped)
+                .rejected(rejected)
+                .rejectedRowsUrl(rejected > 0 ? "/api/enrollments/imports/" + importId + "/rejected" : null)
+                .build();
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportRejected(Long importId, ExportFormat format) {
+        if (!enrollmentImportRepository.exists(importId)) {
+            throw new ResourceNotFoundException("Enrollment import not found with id: " + importId);
+        }
+        return jdbcExporter.export("enrollment-import-" + importId + "-rejected", format, REJECTED_SQL, importId);
+    }
+
+    private List<String> readHeader(BufferedReader reader) {
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new BusinessException("CSV payload is empty");
+            }
+            return Csv.parseLine(header.replace("\uFEFF", "")).stream()
+                    .map(column -> column.replace("_", "").toLowerCase(Locale.ROOT))
+                    .toList();
+        } catch (IOException e) {
+            throw new BusinessException("Could not read CSV payload: " + e.getMessage());
+        }
+    }
+}
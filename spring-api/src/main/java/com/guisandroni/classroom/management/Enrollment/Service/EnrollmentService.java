@@ -1,66 +1,147 @@
 package com.guisandroni.classroom.management.Enrollment.Service;
 
-import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
 import com.guisandroni.classroom.management.Class.Entity.Class;
 import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.JdbcExporter;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentResult;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentOutcome;
 import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
 import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.WaitlistEntryResponse;
 import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Enum.BulkEnrollmentStatus;
 import com.guisandroni.classroom.management.Enrollment.Mapper.EnrollmentMapper;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository.EnrollmentPair;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository.InsertedEnrollment;
 import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Enrollment.Repository.ScheduleConflictRepository;
+import com.guisandroni.classroom.management.Enrollment.Repository.ScheduleConflictRepository.ScheduleConflict;
+import com.guisandroni.classroom.management.Enrollment.Repository.SeatAllocationRepository;
 import com.guisandroni.classroom.management.Student.Entity.Student;
 import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardCache;
 import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
 import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Exception.ScheduleConflictException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EnrollmentService {
 
+    private static final String EXPORT_SQL = """
+            SELECT e.id, e.class_id AS "classId", c.name AS "className",
+                   e.student_id AS "studentId", s.name AS "studentName", s.email AS "studentEmail"
+            FROM enrollments e
+            JOIN classes c ON c.id = e.class_id
+            JOIN students s ON s.id = e.student_id
+            WHERE %s
+            ORDER BY e.id
+            """;
+
     private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentBulkRepository enrollmentBulkRepository;
+    private final SeatAllocationRepository seatAllocationRepository;
+    private final ScheduleConflictRepository scheduleConflictRepository;
+    private final StudentDashboardCache dashboardCache;
     private final ClassRepository classRepository;
     private final StudentRepository studentRepository;
+    private final CurrentUserService currentUserService;
+    private final JdbcExporter jdbcExporter;
 
     @Transactional(readOnly = true)
-    public List<EnrollmentResponse> findAll() {
-        return enrollmentRepository.findAll()
-                .stream()
-                .map(EnrollmentMapper::toEnrollmentResponse)
-                .toList();
+    public CursorPage<EnrollmentResponse> findPage(Long classId, Long studentId, String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        long afterId = Cursor.afterId(cursor, "id");
+        Limit rowLimit = Limit.of(pageSize + 1);
+        List<EnrollmentResponse> rows;
+        if (classId != null && studentId != null) {
+            rows = enrollmentRepository.findPageByClassIdAndStudentId(classId, studentId, afterId, rowLimit);
+        } else if (classId != null) {
+            rows = enrollmentRepository.findPageByClassId(classId, afterId, rowLimit);
+        } else if (studentId != null) {
+            rows = enrollmentRepository.findPageByStudentId(studentId, afterId, rowLimit);
+        } else {
+            rows = enrollmentRepository.findPage(afterId, rowLimit);
+        }
+        return CursorPage.of(rows, pageSize, row -> Cursor.encode("id", row.getId()));
+    }
+
+    /**
+     * Streams every matching enrollment. Not transactional here: the query runs later, on
+     * the response thread, inside the exporter's own read-only transaction.
+     */
+    public ResponseEntity<StreamingResponseBody> export(ExportFormat format, Long classId, Long studentId) {
+        StringJoiner where = new StringJoiner(" AND ").setEmptyValue("true");
+        List<Object> args = new ArrayList<>();
+        if (classId != null) {
+            where.add("e.class_id = ?");
+            args.add(classId);
+        }
+        if (studentId != null) {
+            where.add("e.student_id = ?");
+            args.add(studentId);
+        }
+        return jdbcExporter.export("enrollments", format, EXPORT_SQL.formatted(where), args.toArray());
     }
 
     @Transactional(readOnly = true)
     public EnrollmentResponse findById(Long id) {
-        Enrollment enrollment = enrollmentRepository.findById(id)
+        return enrollmentRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + id));
-        return EnrollmentMapper.toEnrollmentResponse(enrollment);
     }
 
     @Transactional(readOnly = true)
     public List<EnrollmentResponse> findByClassId(Long classId) {
-        return enrollmentRepository.findByClassEntityId(classId)
-                .stream()
-                .map(EnrollmentMapper::toEnrollmentResponse)
-                .toList();
+        return enrollmentRepository.findResponsesByClassId(classId);
     }
 
     @Transactional(readOnly = true)
     public List<EnrollmentResponse> findByStudentId(Long studentId) {
-        return enrollmentRepository.findByStudentEntityId(studentId)
-                .stream()
-                .map(EnrollmentMapper::toEnrollmentResponse)
-                .toList();
+        return enrollmentRepository.findResponsesByStudentId(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> findWaitlist(Long classId) {
+        if (!classRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Class not found with id: " + classId);
+        }
+        return seatAllocationRepository.findWaitlist(classId);
     }
 
+    /**
+     * Enrolls the student if the class has a free seat, otherwise puts them on its
+     * waitlist. The seat is taken with a conditional update before the insert, so two
+     * requests can never both get the last one. Fails with every overlapping class when
+     * the student already has one at the same time.
+     */
     @Transactional
-    public EnrollmentResponse create(EnrollmentRequest request) {
+    public EnrollmentOutcome create(EnrollmentRequest request) {
         if (enrollmentRepository.existsByClassEntityIdAndStudentEntityId(request.getClassId(), request.getStudentId())) {
             throw new BusinessException("Student is already enrolled in this class");
         }
@@ -71,45 +152,167 @@ public class EnrollmentService {
         Student student = studentRepository.findById(request.getStudentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + request.getStudentId()));
 
+        List<ScheduleConflict> conflicts = scheduleConflictRepository.findConflicts(
+                List.of(new EnrollmentPair(classEntity.getId(), student.getId())));
+        if (!conflicts.isEmpty()) {
+            Map<String, String> details = new LinkedHashMap<>();
+            conflicts.forEach(conflict -> details.put(String.valueOf(conflict.classId()),
+                    conflict.className() + " (" + conflict.startDate() + " to " + conflict.endDate() + ")"));
+            throw new ScheduleConflictException(
+                    "Student already has a class at the same time as " + classEntity.getName(), details);
+        }
+
+        if (!seatAllocationRepository.tryReserve(classEntity.getId())) {
+            return EnrollmentOutcome.builder()
+                    .waitlistEntry(seatAllocationRepository.addToWaitlist(classEntity.getId(), student.getId()))
+                    .build();
+        }
+
         Enrollment enrollment = EnrollmentMapper.toEnrollment(classEntity, student);
-        enrollment = enrollmentRepository.save(enrollment);
-        return EnrollmentMapper.toEnrollmentResponse(enrollment);
+        try {
+            enrollment = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request enrolled the same student; rolling back also returns the seat.
+            throw new BusinessException("Student is already enrolled in this class");
+        }
+        dashboardCache.evict(student.getId());
+        return EnrollmentOutcome.builder()
+                .enrollment(EnrollmentMapper.toEnrollmentResponse(enrollment))
+                .build();
     }
 
+    /**
+     * Enrolls a cohort into one class, or one student into several classes, with one
+     * existence query per table, one schedule conflict query and a single insert. Ids
+     * repeated in the request are reported once. Of two requested classes that overlap,
+     * the one listed first is kept.
+     */
     @Transactional
-    public void delete(Long id) {
-        if (!enrollmentRepository.existsById(id)) {
-            throw new RuntimeException("Enrollment not found with id: " + id);
+    public BulkEnrollmentResponse createBulk(BulkEnrollmentRequest request) {
+        List<EnrollmentPair> pairs = toPairs(request);
+
+        Set<Long> classIds = new LinkedHashSet<>();
+        Set<Long> studentIds = new LinkedHashSet<>();
+        pairs.forEach(pair -> {
+            classIds.add(pair.classId());
+            studentIds.add(pair.studentId());
+        });
+        Set<Long> existingClassIds = enrollmentBulkRepository.findExistingClassIds(classIds);
+        Set<Long> existingStudentIds = enrollmentBulkRepository.findExistingStudentIds(studentIds);
+
+        List<EnrollmentPair> candidates = pairs.stream()
+                .filter(pair -> existingClassIds.contains(pair.classId()) && existingStudentIds.contains(pair.studentId()))
+                .toList();
+        Map<EnrollmentPair, List<Long>> conflicts = findConflicts(candidates);
+        List<EnrollmentPair> insertable = candidates.stream()
+                .filter(pair -> !conflicts.containsKey(pair))
+                .toList();
+        Map<EnrollmentPair, Long> inserted = new HashMap<>();
+        Set<EnrollmentPair> waitlisted = Set.of();
+        if (!insertable.isEmpty()) {
+            for (InsertedEnrollment enrollment : enrollmentBulkRepository.insertIgnoringExisting(insertable)) {
+                inserted.put(new EnrollmentPair(enrollment.classId(), enrollment.studentId()), enrollment.id());
+            }
+            waitlisted = Set.copyOf(seatAllocationRepository.allocate(List.copyOf(inserted.values())));
+            inserted.keySet().removeAll(waitlisted);
+            dashboardCache.evict(inserted.keySet().stream().map(EnrollmentPair::studentId).distinct().toList());
         }
-        enrollmentRepository.deleteById(id);
+
+        List<BulkEnrollmentResult> results = new ArrayList<>(pairs.size());
+        for (EnrollmentPair pair : pairs) {
+            BulkEnrollmentStatus status;
+            if (!existingClassIds.contains(pair.classId())) {
+                status = BulkEnrollmentStatus.CLASS_NOT_FOUND;
+            } else if (!existingStudentIds.contains(pair.studentId())) {
+                status = BulkEnrollmentStatus.STUDENT_NOT_FOUND;
+            } else if (conflicts.containsKey(pair)) {
+                status = BulkEnrollmentStatus.SCHEDULE_CONFLICT;
+            } else if (inserted.containsKey(pair)) {
+                status = BulkEnrollmentStatus.ENROLLED;
+            } else if (waitlisted.contains(pair)) {
+                status = BulkEnrollmentStatus.WAITLISTED;
+            } else {
+                status = BulkEnrollmentStatus.ALREADY_ENROLLED;
+            }
+            results.add(BulkEnrollmentResult.builder()
+                    .classId(pair.classId())
+                    .studentId(pair.studentId())
+                    .status(status)
+                    .enrollmentId(inserted.get(pair))
+                    .conflictingClassIds(conflicts.get(pair))
+                    .build());
+        }
+
+        return BulkEnrollmentResponse.builder()
+                .requested(pairs.size())
+                .enrolled(inserted.size())
+                .waitlisted(waitlisted.size())
+                .conflicting(conflicts.size())
+                .results(results)
+                .build();
+    }
+
+    private Map<EnrollmentPair, List<Long>> findConflicts(List<EnrollmentPair> pairs) {
+        Map<EnrollmentPair, List<Long>> conflicts = new HashMap<>();
+        scheduleConflictRepository.findBlocked(pairs).forEach((pair, blocking) ->
+                conflicts.put(pair, blocking.stream().map(ScheduleConflict::classId).toList()));
+        return conflicts;
+    }
+
+    private List<EnrollmentPair> toPairs(BulkEnrollmentRequest request) {
+        boolean cohort = request.getClassId() != null && request.getStudentIds() != null && !request.getStudentIds().isEmpty();
+        boolean schedule = request.getStudentId() != null && request.getClassIds() != null && !request.getClassIds().isEmpty();
+        if (cohort == schedule) {
+            throw new BusinessException("Provide either classId with studentIds or studentId with classIds");
+        }
+
+        if (cohort) {
+            return request.getStudentIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .map(studentId -> new EnrollmentPair(request.getClassId(), studentId))
+                    .toList();
+        }
+        return request.getClassIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(classId -> new EnrollmentPair(classId, request.getStudentId()))
+                .toList();
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        Enrollment enrollment = enrollmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + id));
+        remove(enrollment);
     }
 
     @Transactional
     public void deleteByClassAndStudent(Long classId, Long studentId) {
         Enrollment enrollment = enrollmentRepository.findByClassEntityIdAndStudentEntityId(classId, studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found for this class and student"));
+        remove(enrollment);
+    }
+
+    /**
+     * Deletes the enrollment and hands its seat to the first student on the waitlist.
+     */
+    private void remove(Enrollment enrollment) {
+        Long classId = enrollment.getClassEntity().getId();
         enrollmentRepository.delete(enrollment);
+        enrollmentRepository.flush();
+        seatAllocationRepository.release(classId);
+        List<EnrollmentPair> promoted = seatAllocationRepository.promote(classId);
+        List<Long> affected = new ArrayList<>(List.of(enrollment.getStudentEntity().getId()));
+        promoted.forEach(pair -> affected.add(pair.studentId()));
+        dashboardCache.evict(affected);
+        if (!promoted.isEmpty()) {
+            log.info("Promoted {} student(s) from the waitlist of class {}", promoted.size(), classId);
+        }
     }
 
     @Transactional(readOnly = true)
     public List<EnrollmentResponse> findEnrollmentsForCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResourceNotFoundException("User not authenticated");
-        }
-
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            throw new ResourceNotFoundException("Invalid user principal");
-        }
-
-        User user = (User) principal;
-        Student student = studentRepository.findByEmail(user.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found for current user"));
-
-        return enrollmentRepository.findByStudentEntityId(student.getId())
-                .stream()
-                .map(EnrollmentMapper::toEnrollmentResponse)
-                .toList();
+        return enrollmentRepository.findResponsesByStudentId(currentUserService.currentStudentId());
     }
 }
@@ -0,0 +1,7 @@
+package com.guisandroni.classroom.management.Exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.guisandroni.classroom.management.Exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class ScheduleConflictException extends RuntimeException {
+
+    // Conflicting class id -> a description of that class and its schedule
+    private final Map<String, String> conflicts;
+
+    public ScheduleConflictException(String message, Map<String, String> conflicts) {
+        super(message);
+        this.conflicts = conflicts;
+    }
+}
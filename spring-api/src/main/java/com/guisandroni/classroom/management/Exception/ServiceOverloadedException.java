@@ -0,0 +1,7 @@
+package com.guisandroni.classroom.management.Exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
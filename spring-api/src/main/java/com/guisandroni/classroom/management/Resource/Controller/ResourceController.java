@@ -1,15 +1,24 @@
 package com.guisandroni.classroom.management.Resource.Controller;
 
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.ConditionalGet;
+import com.guisandroni.classroom.management.Common.MergePatch;
 import com.guisandroni.classroom.management.Resource.DTO.ResourceRequest;
 import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
 import com.guisandroni.classroom.management.Resource.Service.ResourceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,11 +27,23 @@ import java.util.List;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ResourceResponse>> findAll() {
-        return ResponseEntity.ok(resourceService.findAll());
+    public ResponseEntity<List<ResourceResponse>> findAll(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) Boolean draft,
+            @RequestParam(required = false) ResourcesType resourceType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return resourceService.findPage(classId, draft, resourceType, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
+    public ResponseEntity<List<ResourceResponse>> findMyResources() {
+        return ResponseEntity.ok(resourceService.findForCurrentStudent());
     }
 
     @GetMapping("/{id}")
@@ -33,8 +54,9 @@ public class ResourceController {
 
     @GetMapping("/class/{classId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ResourceResponse>> findByClassId(@PathVariable Long classId) {
-        return ResponseEntity.ok(resourceService.findByClassId(classId));
+    public ResponseEntity<List<ResourceResponse>> findByClassId(@PathVariable Long classId, WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(Aggregate.RESOURCE, Aggregate.CLASS),
+                () -> ResponseEntity.ok(resourceService.findByClassId(classId)));
     }
 
     @PostMapping
@@ -49,6 +71,15 @@ public class ResourceController {
         return ResponseEntity.ok(resourceService.update(id, request));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResourceResponse> patch(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        return ResponseEntity.ok(resourceService.patch(id, body, ifMatch));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -19,4 +19,5 @@ public class ResourceResponse {
     private Boolean draft;
     private String name;
     private String description;
+    private Long version;
 }
@@ -29,6 +29,18 @@ public class ResourceMapper {
                 .draft(resource.getDraft())
                 .name(resource.getName())
                 .description(resource.getDescription())
+                .version(resource.getVersion())
+                .build();
+    }
+
+    public static ResourceRequest toResourceRequest(Resource resource) {
+        return ResourceRequest.builder()
+                .classId(resource.getClassEntity().getId())
+                .resourceType(resource.getResourceType())
+                .previousAccess(resource.getPreviousAccess())
+                .draft(resource.getDraft())
+                .name(resource.getName())
+                .description(resource.getDescription())
                 .build();
     }
 
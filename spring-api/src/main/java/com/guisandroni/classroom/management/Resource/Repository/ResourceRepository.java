@@ -1,12 +1,78 @@
 package com.guisandroni.classroom.management.Resource.Repository;
 
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
 import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
-    List<Resource> findByClassEntityId(Long classId);
+
+    String RESPONSE_SELECT = "SELECT new com.guisandroni.classroom.management.Resource.DTO.ResourceResponse(" +
+            "r.id, c.id, c.name, r.resourceType, r.previousAccess, r.draft, r.name, r.description, r.version) " +
+            "FROM Resource r JOIN r.classEntity c ";
+
+    /**
+     * What students may see: published resources, and those without previous access only
+     * once their class has started. {@code draft = false} matches the partial index of V11.
+     */
+    String VISIBLE = "r.draft = false AND (r.previousAccess = true OR c.startDate <= :now) ";
+
+    @Query("SELECT r FROM Resource r JOIN FETCH r.classEntity c WHERE c.id = :classId ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    List<Resource> findByClassEntityId(@Param("classId") Long classId);
+
+    /*
+     * The class filter has a query of its own, led by the (class_id, id) index of V4. Draft
+     * and type are plain filters; when absent they are passed as every value.
+     */
+    @Query(RESPONSE_SELECT +
+            "WHERE r.draft IN :drafts " +
+            "AND r.resourceType IN :resourceTypes " +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<ResourceResponse> findPage(@Param("drafts") Collection<Boolean> drafts,
+                                    @Param("resourceTypes") Collection<ResourcesType> resourceTypes,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    @Query(RESPONSE_SELECT +
+            "WHERE c.id = :classId " +
+            "AND r.draft IN :drafts " +
+            "AND r.resourceType IN :resourceTypes " +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<ResourceResponse> findPageByClassId(@Param("classId") Long classId,
+                                             @Param("drafts") Collection<Boolean> drafts,
+                                             @Param("resourceTypes") Collection<ResourcesType> resourceTypes,
+                                             @Param("afterId") long afterId,
+                                             Limit limit);
+
+    @Query(RESPONSE_SELECT +
+            "WHERE " + VISIBLE +
+            "AND c.id IN (SELECT e.classEntity.id FROM Enrollment e WHERE e.studentEntity.id = :studentId) " +
+            "ORDER BY r.id")
+    List<ResourceResponse> findVisibleResponsesByStudentId(@Param("studentId") Long studentId,
+                                                           @Param("now") LocalDateTime now);
+
+    @Query(RESPONSE_SELECT +
+            "WHERE " + VISIBLE +
+            "AND c.id IN :classIds " +
+            "ORDER BY r.id")
+    List<ResourceResponse> findVisibleResponsesByClassIdIn(@Param("classIds") Collection<Long> classIds,
+                                                           @Param("now") LocalDateTime now);
 }
@@ -1,22 +1,41 @@
 package com.guisandroni.classroom.management.Resource.Service;
 
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
 import com.guisandroni.classroom.management.Class.Entity.Class;
 import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Common.MergePatch;
 import com.guisandroni.classroom.management.Resource.DTO.ResourceRequest;
 import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
 import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
 import com.guisandroni.classroom.management.Resource.Mapper.ResourceMapper;
 import com.guisandroni.classroom.management.Resource.Repository.ResourceRepository;
+import com.guisandroni.classroom.management.Resource.Service.VisibleResourceCache.ClassResources;
 import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardCache;
 import com.guisandroni.classroom.management.Training.DTO.TrainingRequest;
 import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
 import com.guisandroni.classroom.management.Training.Entity.Training;
 import com.guisandroni.classroom.management.Training.Mapper.TrainingMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,57 +43,133 @@ public class ResourceService {
 
     private final ResourceRepository resourceRepository;
     private final ClassRepository classRepository;
+    private final StudentDashboardCache dashboardCache;
+    private final VisibleResourceCache visibleResourceCache;
+    private final CurrentUserService currentUserService;
+    private final CatalogVersions catalogVersions;
+    private final MergePatch mergePatch;
 
     @Transactional(readOnly = true)
-    public List<ResourceResponse> findAll() {
-        return resourceRepository.findAll()
-                .stream()
-                .map(ResourceMapper::toResourceResponse)
-                .toList();
+    public CursorPage<ResourceResponse> findPage(Long classId, Boolean draft, ResourcesType resourceType,
+                                                 String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<Boolean> drafts = draft == null ? List.of(false, true) : List.of(draft);
+        Set<ResourcesType> resourceTypes = resourceType == null ? EnumSet.allOf(ResourcesType.class) : EnumSet.of(resourceType);
+        long afterId = Cursor.afterId(cursor, "id");
+        List<ResourceResponse> rows = classId == null
+                ? resourceRepository.findPage(drafts, resourceTypes, afterId, Limit.of(pageSize + 1))
+                : resourceRepository.findPageByClassId(classId, drafts, resourceTypes, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, row -> Cursor.encode("id", row.getId()));
     }
 
     @Transactional(readOnly = true)
     public ResourceResponse findById(Long id) {
-        Resource resource = resourceRepository.findById(id)
+        return resourceRepository.findById(id)
+                .map(ResourceMapper::toResourceResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Resource not found with id: " + id));
-        return ResourceMapper.toResourceResponse(resource);
     }
 
     @Transactional(readOnly = true)
     public List<ResourceResponse> findByClassId(Long classId) {
-        return resourceRepository.findByClassEntityId(classId)
-                .stream()
+        return resourceRepository.findByClassEntityId(classId).stream()
                 .map(ResourceMapper::toResourceResponse)
                 .toList();
     }
 
+    /**
+     * The resources the caller can see in the classes they are enrolled in, by id. The
+     * classes come from one query and their resources from {@link VisibleResourceCache},
+     * with every class it misses loaded in one more. Without the cache this is a single
+     * query.
+     */
+    @Transactional(readOnly = true)
+    public List<ResourceResponse> findForCurrentStudent() {
+        Long studentId = currentUserService.currentStudentId();
+        LocalDateTime now = LocalDateTime.now();
+        if (!visibleResourceCache.isEnabled()) {
+            return resourceRepository.findVisibleResponsesByStudentId(studentId, now);
+        }
+
+        Map<Long, LocalDateTime> startDates = classRepository.findResponsesByStudentId(studentId).stream()
+                .collect(Collectors.toMap(ClassResponse::getId, ClassResponse::getStartDate));
+        return visibleResourceCache.getAll(startDates.keySet(), classIds -> loadVisible(classIds, startDates, now))
+                .values().stream()
+                .flatMap(classResources -> classResources.resources().stream())
+                .sorted(Comparator.comparing(ResourceResponse::getId))
+                .toList();
+    }
+
+    private Map<Long, ClassResources> loadVisible(Set<Long> classIds, Map<Long, LocalDateTime> startDates,
+                                                  LocalDateTime now) {
+        Map<Long, List<ResourceResponse>> resources = resourceRepository.findVisibleResponsesByClassIdIn(classIds, now)
+                .stream()
+                .collect(Collectors.groupingBy(ResourceResponse::getClassId));
+        // Classes with nothing to show yet are cached too, until they start.
+        Map<Long, ClassResources> loaded = new HashMap<>();
+        for (Long classId : classIds) {
+            loaded.put(classId, new ClassResources(startDates.get(classId), resources.getOrDefault(classId, List.of())));
+        }
+        return loaded;
+    }
+
     @Transactional
     public ResourceResponse create(ResourceRequest request) {
 
         Resource resource = ResourceMapper.toResource(request);
         resource = resourceRepository.save(resource);
+        catalogVersions.bump(Aggregate.RESOURCE);
+        dashboardCache.evictAll();
+        visibleResourceCache.evict(request.getClassId());
         return ResourceMapper.toResourceResponse(resource);
     }
 
 
     @Transactional
     public ResourceResponse update(Long id, ResourceRequest request) {
-        Resource resource = resourceRepository.findById(id)
+        return update(findEntity(id), request);
+    }
+
+    @Transactional
+    public ResourceResponse patch(Long id, InputStream patch, String ifMatch) {
+        Resource resource = findEntity(id);
+        mergePatch.checkVersion(resource.getVersion(), ifMatch);
+        ResourceRequest current = ResourceMapper.toResourceRequest(resource);
+        ResourceRequest request = mergePatch.apply(current, patch);
+        if (request.equals(current)) {
+            return ResourceMapper.toResourceResponse(resource);
+        }
+        return update(resource, request);
+    }
+
+    private Resource findEntity(Long id) {
+        return resourceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Resource not found with id: " + id));
+    }
 
-        Class classEntity = classRepository.findById(request.getClassId())
-                .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + request.getClassId()));
+    private ResourceResponse update(Resource resource, ResourceRequest request) {
+        // Keep the current (possibly uninitialized) class unless the resource moves.
+        Long previousClassId = resource.getClassEntity().getId();
+        Class classEntity = request.getClassId().equals(resource.getClassEntity().getId())
+                ? resource.getClassEntity()
+                : classRepository.findById(request.getClassId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Class not found with id: " + request.getClassId()));
 
         ResourceMapper.updateResource(resource, request, classEntity);
-        resource = resourceRepository.save(resource);
+        // Flushed here so the response carries the new version.
+        resource = resourceRepository.saveAndFlush(resource);
+        catalogVersions.bump(Aggregate.RESOURCE);
+        dashboardCache.evictAll();
+        visibleResourceCache.evict(List.of(previousClassId, classEntity.getId()));
         return ResourceMapper.toResourceResponse(resource);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!resourceRepository.existsById(id)) {
-            throw new RuntimeException("Resource not found with id: " + id);
-        }
-        resourceRepository.deleteById(id);
+        Resource resource = resourceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Resource not found with id: " + id));
+        resourceRepository.delete(resource);
+        catalogVersions.bump(Aggregate.RESOURCE);
+        dashboardCache.evictAll();
+        visibleResourceCache.evict(resource.getClassEntity().getId());
     }
 }
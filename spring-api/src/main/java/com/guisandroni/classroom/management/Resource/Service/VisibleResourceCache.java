@@ -0,0 +1,106 @@
+package com.guisandroni.classroom.management.Resource.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.guisandroni.classroom.management.Common.AfterCommit;
+import com.guisandroni.classroom.management.Common.CacheInvalidation;
+import com.guisandroni.classroom.management.Common.CallerLoads;
+import com.guisandroni.classroom.management.Common.InvalidatableCache;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resources students can see, by class id. An entry loaded before its class starts expires
+ * when the class starts, since resources without previous access become visible then;
+ * later entries only expire after the TTL. Resource writes evict their classes, and class
+ * updates evict the class. Evictions reach the other instances too.
+ */
+@Component
+public class VisibleResourceCache implements InvalidatableCache {
+
+    /**
+     * The visible resources of one class, and when the class starts.
+     */
+    public record ClassResources(LocalDateTime startDate, List<ResourceResponse> resources) {
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final AsyncCache<Long, ClassResources> cache;
+
+    public VisibleResourceCache(
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${resources.visible-cache.enabled:true}") boolean enabled,
+            @Value("${resources.visible-cache.ttl:1h}") Duration ttl,
+            @Value("${resources.visible-cache.max-size:10000}") long maxSize
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((Long classId, ClassResources value) -> expiry(value, ttl)))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "resources.visible");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the classes that are missing in one call; the loader must return every class
+     * it is given.
+     */
+    public Map<Long, ClassResources> getAll(Collection<Long> classIds,
+                                            Function<Set<Long>, Map<Long, ClassResources>> loader) {
+        return CallerLoads.getAll(cache, classIds, loader);
+    }
+
+    public void evict(Long classId) {
+        evict(List.of(classId));
+    }
+
+    public void evict(Collection<Long> classIds) {
+        if (classIds.isEmpty()) {
+            return;
+        }
+        List<Long> keys = List.copyOf(classIds);
+        AfterCommit.runNowAndAfterCommit(() -> cache.synchronous().invalidateAll(keys));
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.VISIBLE_RESOURCES, keys));
+    }
+
+    @Override
+    public CacheInvalidation.Region region() {
+        return CacheInvalidation.Region.VISIBLE_RESOURCES;
+    }
+
+    @Override
+    public void evictLocally(Collection<String> classIds) {
+        cache.synchronous().invalidateAll(classIds.stream().map(Long::valueOf).toList());
+    }
+
+    @Override
+    public void evictAllLocally() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private static Duration expiry(ClassResources value, Duration ttl) {
+        Duration untilStart = Duration.between(LocalDateTime.now(), value.startDate());
+        return untilStart.isNegative() || untilStart.compareTo(ttl) >= 0 ? ttl : untilStart;
+    }
+}
@@ -0,0 +1,34 @@
+package com.guisandroni.classroom.management.Search.Controller;
+
+import com.guisandroni.classroom.management.Search.DTO.SearchResultResponse;
+import com.guisandroni.classroom.management.Search.Enum.SearchType;
+import com.guisandroni.classroom.management.Search.Service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
+    public ResponseEntity<List<SearchResultResponse>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Set<SearchType> types,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return searchService.search(q, mode, types, cursor, limit).toResponseEntity();
+    }
+}
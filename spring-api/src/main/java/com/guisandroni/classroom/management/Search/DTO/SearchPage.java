@@ -0,0 +1,27 @@
+package com.guisandroni.classroom.management.Search.DTO;
+
+import com.guisandroni.classroom.management.Common.CursorPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * A {@link CursorPage} of search results that also says whether older matches were left out
+ * because the query matched more rows than are ranked. The body stays a plain JSON array;
+ * the flag travels in the {@code X-Search-Truncated} header, sent only when it is set.
+ */
+public record SearchPage(List<SearchResultResponse> items, String nextCursor, boolean truncated) {
+
+    public static final String TRUNCATED_HEADER = "X-Search-Truncated";
+
+    public ResponseEntity<List<SearchResultResponse>> toResponseEntity() {
+        ResponseEntity<List<SearchResultResponse>> page = new CursorPage<>(items, nextCursor).toResponseEntity();
+        if (!truncated) {
+            return page;
+        }
+        return ResponseEntity.ok()
+                .headers(page.getHeaders())
+                .header(TRUNCATED_HEADER, "true")
+                .body(page.getBody());
+    }
+}
@@ -0,0 +1,21 @@
+package com.guisandroni.classroom.management.Search.DTO;
+
+import com.guisandroni.classroom.management.Search.Enum.SearchType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultResponse {
+    private SearchType type;
+    private Long id;
+    private String name;
+    private String description;
+    private Long trainingId;
+    private Long classId;
+    private Float rank;
+}
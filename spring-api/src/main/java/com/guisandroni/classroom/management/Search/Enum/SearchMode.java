@@ -0,0 +1,29 @@
+package com.guisandroni.classroom.management.Search.Enum;
+
+import com.guisandroni.classroom.management.Exception.BusinessException;
+
+import java.util.Locale;
+
+public enum SearchMode {
+    /**
+     * Stemmed, accent-insensitive match of whole words in names and descriptions, ranked
+     * by {@code ts_rank_cd}. Accepts the web search syntax: quotes, {@code or} and {@code -}.
+     */
+    FULLTEXT,
+    /**
+     * Names with a word starting with each word of the query, accents ignored, ranked by
+     * trigram word similarity to the query. Meant for search-as-you-type on partial words.
+     */
+    TYPEAHEAD;
+
+    public static SearchMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULLTEXT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unsupported search mode: " + value + ". Use fulltext or typeahead");
+        }
+    }
+}
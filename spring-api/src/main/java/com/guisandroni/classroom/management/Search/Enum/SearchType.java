@@ -0,0 +1,7 @@
+package com.guisandroni.classroom.management.Search.Enum;
+
+public enum SearchType {
+    TRAINING,
+    CLASS,
+    RESOURCE
+}
@@ -0,0 +1,199 @@
+package com.guisandroni.classroom.management.Search.Repository;
+
+import com.guisandroni.classroom.management.Search.Enum.SearchMode;
+import com.guisandroni.classroom.management.Search.Enum.SearchType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * Search over trainings, classes and resources backed by the generated {@code search_vector}
+ * and {@code name_vector} columns of V8 and their GIN indexes.
+ * <p>
+ * Every hit has a score where lower is better: the negated {@code ts_rank_cd} in full-text
+ * mode and the trigram word distance between the unaccented query and name in typeahead
+ * mode. Ranking needs every candidate row, and a common word matches a large part of a big
+ * table, so each table only ranks its newest {@code search.candidates} matches. Rare words
+ * come straight from the GIN index and common ones are found within a few pages of the
+ * primary key, read backwards, which keeps the cost flat however broad the query is. A query
+ * that matches more than that has to be refined to reach older rows; each table reads one
+ * match past the limit so the result can say so.
+ * <p>
+ * Results are ordered by (score, type, id) and paged by keyset on that triple. The candidates
+ * of a table are the same on every page, so each page continues exactly where the last one
+ * stopped.
+ */
+@Repository
+public class SearchRepository {
+
+    private static final String CANDIDATES = """
+            c%d AS (
+                SELECT %d AS type, x.id, x.name, %s AS description, %s AS training_id, %s AS class_id, %s AS score
+                FROM %s x
+                WHERE %s
+                ORDER BY x.id DESC
+                LIMIT ?
+            )""";
+
+    private static final String BRANCH = """
+            (SELECT * FROM (SELECT * FROM c%d ORDER BY id DESC LIMIT ?) candidates
+             WHERE %s
+             ORDER BY score, id
+             LIMIT ?)
+            """;
+
+    /*
+     * The flag row is there even when no hit is left, so the last page still reports it.
+     */
+    private static final String SEARCH = """
+            WITH %s
+            SELECT flags.truncated, hits.type, hits.id, hits.name, hits.description, hits.training_id,
+                   hits.class_id, hits.score
+            FROM (SELECT %s AS truncated) flags
+            LEFT JOIN (%s) hits ON true
+            ORDER BY hits.score, hits.type, hits.id
+            LIMIT ?
+            """;
+
+    private record Table(SearchType type, String name, String description, String trainingId, String classId) {
+    }
+
+    private static final List<Table> TABLES = List.of(
+            new Table(SearchType.TRAINING, "trainings", "x.description", "NULL::bigint", "NULL::bigint"),
+            new Table(SearchType.CLASS, "classes", "NULL", "x.training_id", "NULL::bigint"),
+            new Table(SearchType.RESOURCE, "resources", "x.description", "NULL::bigint", "x.class_id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int candidates;
+
+    public SearchRepository(JdbcTemplate jdbcTemplate, @Value("${search.candidates:200}") int candidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.candidates = candidates;
+    }
+
+    public record SearchHit(SearchType type, Long id, String name, String description,
+                            Long trainingId, Long classId, float score) {
+    }
+
+    /**
+     * One page of hits. {@code truncated} is set when a table matched more rows than it ranks,
+     * so older matches are missing from the whole result, not just from this page.
+     */
+    public record SearchResult(List<SearchHit> hits, boolean truncated) {
+    }
+
+    /**
+     * The position of the last hit of the previous page.
+     */
+    public record After(float score, SearchType type, Long id) {
+    }
+
+    /**
+     * Returns up to {@code limit} hits after {@code after} (from the start when null).
+     * Draft resources are only included when {@code includeDrafts} is set.
+     */
+    public SearchResult search(SearchMode mode, String query, Set<SearchType> types,
+                               boolean includeDrafts, After after, int limit) {
+        String tsQuery = mode == SearchMode.FULLTEXT ? query : prefixQuery(query);
+        if (tsQuery.isEmpty()) {
+            return new SearchResult(List.of(), false);
+        }
+        StringJoiner ctes = new StringJoiner(",\n");
+        StringJoiner truncated = new StringJoiner(" OR ");
+        StringJoiner branches = new StringJoiner(" UNION ALL ");
+        List<Object> cteArgs = new ArrayList<>();
+        List<Object> truncatedArgs = new ArrayList<>();
+        List<Object> branchArgs = new ArrayList<>();
+        for (Table table : TABLES) {
+            if (!types.contains(table.type())) {
+                continue;
+            }
+            String score = switch (mode) {
+                case FULLTEXT -> "-ts_rank_cd(x.search_vector, websearch_to_tsquery('portuguese_unaccent', ?))";
+                case TYPEAHEAD -> "(unaccent(?) <<-> unaccent(x.name))";
+            };
+            String match = switch (mode) {
+                case FULLTEXT -> "x.search_vector @@ websearch_to_tsquery('portuguese_unaccent', ?)";
+                case TYPEAHEAD -> "x.name_vector @@ to_tsquery('simple_unaccent', ?)";
+            };
+            if (table.type() == SearchType.RESOURCE && !includeDrafts) {
+                match += " AND NOT x.draft";
+            }
+            int ordinal = table.type().ordinal();
+            cteArgs.add(query);
+            cteArgs.add(tsQuery);
+            cteArgs.add(candidates + 1);
+            ctes.add(CANDIDATES.formatted(ordinal, ordinal, table.description(), table.trainingId(),
+                    table.classId(), score, table.name(), match));
+
+            truncated.add("(SELECT count(*) FROM c" + ordinal + ") > ?");
+            truncatedArgs.add(candidates);
+
+            branchArgs.add(candidates);
+            String keyset = after == null ? "true" : after(table.type(), after, branchArgs);
+            branchArgs.add(limit);
+            branches.add(BRANCH.formatted(ordinal, keyset));
+        }
+        List<Object> args = new ArrayList<>(cteArgs);
+        args.addAll(truncatedArgs);
+        args.addAll(branchArgs);
+        args.add(limit);
+
+        return jdbcTemplate.query(SEARCH.formatted(ctes, truncated, branches), rs -> {
+            List<SearchHit> hits = new ArrayList<>();
+            boolean anyTruncated = false;
+            while (rs.next()) {
+                anyTruncated = rs.getBoolean("truncated");
+                if (rs.getObject("id") == null) {
+                    continue;
+                }
+                hits.add(new SearchHit(
+                        SearchType.values()[rs.getInt("type")],
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getObject("training_id", Long.class),
+                        rs.getObject("class_id", Long.class),
+                        rs.getFloat("score")));
+            }
+            return new SearchResult(hits, anyTruncated);
+        }, args.toArray());
+    }
+
+    /*
+     * Every word of the input as a prefix, all required: "java spr" -> "java:* & spr:*".
+     * Only letters and digits are kept, so the result is always a valid tsquery.
+     */
+    private static String prefixQuery(String query) {
+        return Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    /*
+     * Keyset condition for one table. The type is constant within a table, so the
+     * (score, type, id) comparison reduces to the score alone for tables ordered before or
+     * after the cursor's type, and to (score, id) within it.
+     */
+    private static String after(SearchType type, After after, List<Object> args) {
+        int order = type.compareTo(after.type());
+        args.add(after.score());
+        if (order < 0) {
+            return "score > ?::real";
+        }
+        if (order > 0) {
+            return "score >= ?::real";
+        }
+        args.add(after.id());
+        return "(score, id) > (?::real, ?)";
+    }
+}
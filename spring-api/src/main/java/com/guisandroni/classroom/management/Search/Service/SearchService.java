@@ -0,0 +1,83 @@
+package com.guisandroni.classroom.management.Search.Service;
+
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Search.DTO.SearchPage;
+import com.guisandroni.classroom.management.Search.DTO.SearchResultResponse;
+import com.guisandroni.classroom.management.Search.Enum.SearchMode;
+import com.guisandroni.classroom.management.Search.Enum.SearchType;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository.After;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository.SearchHit;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository.SearchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Ranked, keyset-paginated search across the catalog. Students never see draft resources.
+ * Pages of a query that matched more rows than are ranked are flagged as truncated.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchRepository searchRepository;
+    private final CurrentUserService currentUserService;
+
+    @Transactional(readOnly = true)
+    public SearchPage search(String query, String mode, Set<SearchType> types,
+            String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("q must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException("q must have at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        SearchMode searchMode = SearchMode.from(mode);
+        String sort = "search:" + searchMode;
+        int pageSize = Cursor.limit(limit);
+        boolean includeDrafts = currentUserService.currentUser().role() == Role.ADMIN;
+
+        SearchResult result = searchRepository.search(searchMode, query.trim(),
+                types == null || types.isEmpty() ? EnumSet.allOf(SearchType.class) : types,
+                includeDrafts, after(cursor, sort), pageSize + 1);
+        CursorPage<SearchHit> page = CursorPage.of(result.hits(), pageSize,
+                hit -> Cursor.encode(sort, hit.score(), hit.type(), hit.id()));
+        return new SearchPage(page.items().stream().map(hit -> toResponse(hit, searchMode)).toList(),
+                page.nextCursor(), result.truncated());
+    }
+
+    private static After after(String cursor, String sort) {
+        String[] keys = Cursor.decode(cursor, sort, 3);
+        if (keys == null) {
+            return null;
+        }
+        try {
+            return new After(Float.parseFloat(keys[0]), SearchType.valueOf(keys[1]), Cursor.parseLong(keys[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    private static SearchResultResponse toResponse(SearchHit hit, SearchMode mode) {
+        return SearchResultResponse.builder()
+                .type(hit.type())
+                .id(hit.id())
+                .name(hit.name())
+                .description(hit.description())
+                .trainingId(hit.trainingId())
+                .classId(hit.classId())
+                // Back to "higher is better": ts_rank_cd, or trigram word similarity
+                .rank(mode == SearchMode.FULLTEXT ? -hit.score() : 1 - hit.score())
+                .build();
+    }
+}
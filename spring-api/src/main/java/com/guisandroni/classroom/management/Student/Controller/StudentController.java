@@ -1,15 +1,27 @@
 package com.guisandroni.classroom.management.Student.Controller;
 
+import com.guisandroni.classroom.management.Common.BulkDeleteRequest;
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.MergePatch;
+import com.guisandroni.classroom.management.Student.DTO.BulkStudentResponse;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
 import com.guisandroni.classroom.management.Student.DTO.StudentRequest;
 import com.guisandroni.classroom.management.Student.DTO.StudentResponse;
+import com.guisandroni.classroom.management.Student.Service.StudentBulkService;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardService;
 import com.guisandroni.classroom.management.Student.Service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,11 +30,32 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentBulkService studentBulkService;
+    private final StudentDashboardService studentDashboardService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<StudentResponse>> findAll() {
-        return ResponseEntity.ok(studentService.findAll());
+    public ResponseEntity<List<StudentResponse>> findAll(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return studentService.findPage(classId, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<StudentResponse>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long notInClassId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return studentService.search(q, notInClassId, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        return studentService.export(ExportFormat.from(format));
     }
 
     @GetMapping("/{id}")
@@ -37,12 +70,33 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(studentService.create(request));
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkStudentResponse> bulkRegisterJson(InputStream body) {
+        return ResponseEntity.ok(studentBulkService.registerJson(body));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkStudentResponse> bulkRegisterCsv(InputStream body) {
+        return ResponseEntity.ok(studentBulkService.registerCsv(body));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StudentResponse> update(@PathVariable Long id, @Valid @RequestBody StudentRequest request) {
         return ResponseEntity.ok(studentService.update(id, request));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StudentResponse> patch(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        return ResponseEntity.ok(studentService.patch(id, body, ifMatch));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -50,9 +104,21 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(studentService.deleteAll(request));
+    }
+
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
     public ResponseEntity<StudentResponse> findCurrentStudent() {
         return ResponseEntity.ok(studentService.findCurrentStudent());
     }
+
+    @GetMapping("/me/dashboard")
+    @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
+    public ResponseEntity<StudentDashboardResponse> findCurrentDashboard() {
+        return ResponseEntity.ok(studentDashboardService.findCurrentDashboard());
+    }
 }
@@ -0,0 +1,19 @@
+package com.guisandroni.classroom.management.Student.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStudentResponse {
+    private int total;
+    private int created;
+    private int rejected;
+    private List<BulkStudentRowResult> results;
+}
@@ -0,0 +1,19 @@
+package com.guisandroni.classroom.management.Student.DTO;
+
+import com.guisandroni.classroom.management.Student.Enum.BulkRowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStudentRowResult {
+    private int row;
+    private String email;
+    private BulkRowStatus status;
+    private Long studentId;
+    private String message;
+}
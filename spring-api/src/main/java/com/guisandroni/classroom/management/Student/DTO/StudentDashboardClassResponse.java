@@ -0,0 +1,25 @@
+package com.guisandroni.classroom.management.Student.DTO;
+
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDashboardClassResponse {
+    private Long id;
+    private Long trainingId;
+    private String trainingName;
+    private String name;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String accessLink;
+    private List<ResourceResponse> resources;
+}
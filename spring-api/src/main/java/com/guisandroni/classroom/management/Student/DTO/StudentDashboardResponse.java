@@ -0,0 +1,22 @@
+package com.guisandroni.classroom.management.Student.DTO;
+
+import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDashboardResponse {
+    private Long id;
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private List<TrainingResponse> trainings;
+    private List<StudentDashboardClassResponse> classes;
+}
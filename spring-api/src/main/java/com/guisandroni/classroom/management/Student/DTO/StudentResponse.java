@@ -17,5 +17,6 @@ public class StudentResponse {
     private String name;
     private String email;
     private String phoneNumber;
+    private Long version;
     private List<EnrollmentResponse> enrollments;
 }
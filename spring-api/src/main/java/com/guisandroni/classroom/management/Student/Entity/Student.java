@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
@@ -17,12 +18,17 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "students")
+@DynamicUpdate
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_id_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(length = 100, nullable = false)
     private String name;
 
@@ -0,0 +1,8 @@
+package com.guisandroni.classroom.management.Student.Enum;
+
+public enum BulkRowStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
@@ -1,10 +1,14 @@
 package com.guisandroni.classroom.management.Student.Mapper;
 
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
 import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
-import com.guisandroni.classroom.management.Enrollment.Mapper.EnrollmentMapper;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardClassResponse;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
 import com.guisandroni.classroom.management.Student.DTO.StudentRequest;
 import com.guisandroni.classroom.management.Student.DTO.StudentResponse;
 import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
 import lombok.experimental.UtilityClass;
 
 import java.util.List;
@@ -20,20 +24,52 @@ public class StudentMapper {
                 .build();
     }
 
-    public static StudentResponse toStudentResponse(Student student) {
-
-
-        List<EnrollmentResponse> enrollments = student.getEnrollments().stream().map(enrollment -> EnrollmentMapper.toEnrollmentResponse(enrollment)).toList();
-
+    public static StudentResponse toStudentResponse(Student student, List<EnrollmentResponse> enrollments) {
         return StudentResponse.builder()
                 .id(student.getId())
                 .name(student.getName())
                 .email(student.getEmail())
                 .phoneNumber(student.getPhoneNumber())
+                .version(student.getVersion())
                 .enrollments(enrollments)
                 .build();
     }
 
+    public static StudentDashboardResponse toStudentDashboardResponse(Student student,
+                                                                      List<TrainingResponse> trainings,
+                                                                      List<StudentDashboardClassResponse> classes) {
+        return StudentDashboardResponse.builder()
+                .id(student.getId())
+                .name(student.getName())
+                .email(student.getEmail())
+                .phoneNumber(student.getPhoneNumber())
+                .trainings(trainings)
+                .classes(classes)
+                .build();
+    }
+
+    public static StudentDashboardClassResponse toStudentDashboardClassResponse(ClassResponse classResponse,
+                                                                                List<ResourceResponse> resources) {
+        return StudentDashboardClassResponse.builder()
+                .id(classResponse.getId())
+                .trainingId(classResponse.getTrainingId())
+                .trainingName(classResponse.getTrainingName())
+                .name(classResponse.getName())
+                .startDate(classResponse.getStartDate())
+                .endDate(classResponse.getEndDate())
+                .accessLink(classResponse.getAccessLink())
+                .resources(resources)
+                .build();
+    }
+
+    public static StudentRequest toStudentRequest(Student student) {
+        return StudentRequest.builder()
+                .name(student.getName())
+                .email(student.getEmail())
+                .phoneNumber(student.getPhoneNumber())
+                .build();
+    }
+
     public static void updateStudent(Student student, StudentRequest request) {
         student.setName(request.getName());
         student.setEmail(request.getEmail());
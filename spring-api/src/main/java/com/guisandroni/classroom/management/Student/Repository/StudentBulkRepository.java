@@ -0,0 +1,126 @@
+package com.guisandroni.classroom.management.Student.Repository;
+
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based JDBC access for bulk student onboarding, where going through JPA one entity
+ * at a time would cost several round trips per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentBulkRepository {
+
+    private static final String FIND_TAKEN = """
+            SELECT email, phone_number FROM users
+            WHERE email = ANY(?) OR phone_number = ANY(?)
+            UNION
+            SELECT email, phone_number FROM students
+            WHERE email = ANY(?) OR phone_number = ANY(?)
+            """;
+
+    private static final String INSERT_USER = """
+            INSERT INTO users (name, email, phone_number, password, role, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_STUDENT = """
+            INSERT INTO students (name, email, phone_number)
+            VALUES (?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewStudentAccount(String name, String email, String phoneNumber, String passwordHash) {
+    }
+
+    public record TakenContacts(Set<String> emails, Set<String> phoneNumbers) {
+    }
+
+    /**
+     * Returns which of the given emails and phone numbers already belong to a user or a
+     * student, in a single query.
+     */
+    @Transactional(readOnly = true)
+    public TakenContacts findTaken(Collection<String> emails, Collection<String> phoneNumbers) {
+        String[] emailArray = emails.toArray(String[]::new);
+        String[] phoneArray = phoneNumbers.toArray(String[]::new);
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhones = new HashSet<>();
+
+        jdbcTemplate.query(FIND_TAKEN, rs -> {
+            takenEmails.add(rs.getString("email"));
+            takenPhones.add(rs.getString("phone_number"));
+        }, emailArray, phoneArray, emailArray, phoneArray);
+
+        takenEmails.retainAll(emails);
+        takenPhones.retainAll(phoneNumbers);
+        return new TakenContacts(takenEmails, takenPhones);
+    }
+
+    /**
+     * Inserts a user and a student row for every account, in two JDBC batches within one
+     * transaction, and returns the new student ids in input order.
+     */
+    @Transactional
+    public List<Long> insertAccounts(List<NewStudentAccount> accounts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                NewStudentAccount account = accounts.get(i);
+                ps.setString(1, account.name());
+                ps.setString(2, account.email());
+                ps.setString(3, account.phoneNumber());
+                ps.setString(4, account.passwordHash());
+                ps.setString(5, Role.STUDENT.name());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return accounts.size();
+            }
+        });
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_STUDENT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewStudentAccount account = accounts.get(i);
+                        ps.setString(1, account.name());
+                        ps.setString(2, account.email());
+                        ps.setString(3, account.phoneNumber());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accounts.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(Map::values)
+                .map(values -> ((Number) values.iterator().next()).longValue())
+                .toList();
+    }
+}
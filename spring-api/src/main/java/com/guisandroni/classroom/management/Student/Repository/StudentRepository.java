@@ -1,9 +1,15 @@
 package com.guisandroni.classroom.management.Student.Repository;
 
 import com.guisandroni.classroom.management.Student.Entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,46 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByEmail(String email);
     boolean existsByEmail(String email);
     boolean existsByPhoneNumber(String phoneNumber);
+
+    @Query("SELECT s FROM Student s WHERE s.id > :afterId ORDER BY s.id")
+    List<Student> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT s FROM Student s " +
+            "WHERE EXISTS (SELECT 1 FROM Enrollment e WHERE e.studentEntity = s AND e.classEntity.id = :classId) " +
+            "AND s.id > :afterId " +
+            "ORDER BY s.id")
+    List<Student> findPageByClassId(@Param("classId") Long classId, @Param("afterId") long afterId, Limit limit);
+
+    String SEARCH_MATCH = "(function('immutable_unaccent' as String, s.name) ILIKE function('immutable_unaccent' as String, :pattern) ESCAPE '\\' " +
+            "OR function('immutable_unaccent' as String, s.email) ILIKE function('immutable_unaccent' as String, :pattern) ESCAPE '\\' " +
+            "OR function('phone_digits' as String, s.phoneNumber) LIKE :phonePattern ESCAPE '\\') ";
+
+    /**
+     * Students whose name or email contains {@code pattern}, ignoring case and accents, or
+     * whose phone number, digits only, matches {@code phonePattern}. Both are LIKE patterns
+     * escaped with {@code \}. Each expression has a trigram index from V9 and V12.
+     */
+    @Query("SELECT s FROM Student s WHERE " + SEARCH_MATCH +
+            "AND s.id > :afterId " +
+            "ORDER BY s.id")
+    List<Student> search(@Param("pattern") String pattern, @Param("phonePattern") String phonePattern,
+                         @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Like {@link #search}, leaving out the students enrolled in the class.
+     */
+    @Query("SELECT s FROM Student s WHERE " + SEARCH_MATCH +
+            "AND NOT EXISTS (SELECT 1 FROM Enrollment e WHERE e.studentEntity = s AND e.classEntity.id = :classId) " +
+            "AND s.id > :afterId " +
+            "ORDER BY s.id")
+    List<Student> searchNotInClass(@Param("pattern") String pattern, @Param("phonePattern") String phonePattern,
+                                   @Param("classId") Long classId, @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * One statement; the database cascades to enrollments and waitlist entries. Seats must
+     * be released first, see {@code SeatAllocationRepository.releaseStudents}.
+     */
+    @Modifying
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
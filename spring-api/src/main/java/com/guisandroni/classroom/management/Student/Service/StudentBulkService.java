@@ -0,0 +1,256 @@
+package com.guisandroni.classroom.management.Student.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guisandroni.classroom.management.Auth.DTO.RegisterRequest;
+import com.guisandroni.classroom.management.Auth.Service.BoundedPasswordEncoder;
+import com.guisandroni.classroom.management.Common.Csv;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Student.DTO.BulkStudentResponse;
+import com.guisandroni.classroom.management.Student.DTO.BulkStudentRowResult;
+import com.guisandroni.classroom.management.Student.Enum.BulkRowStatus;
+import com.guisandroni.classroom.management.Student.Repository.StudentBulkRepository;
+import com.guisandroni.classroom.management.Student.Repository.StudentBulkRepository.NewStudentAccount;
+import com.guisandroni.classroom.management.Student.Repository.StudentBulkRepository.TakenContacts;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registers student accounts in bulk. Rows are read from the request as a stream and
+ * processed in chunks: duplicates are found with one query per chunk, passwords are
+ * hashed in parallel on the BCrypt workers shared with logins, and both tables are written
+ * in JDBC batches.
+ * Each chunk commits on its own, so a failed chunk does not roll back earlier ones.
+ */
+@Slf4j
+@Service
+public class StudentBulkService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "phonenumber", "password");
+
+    private final StudentBulkRepository studentBulkRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxRows;
+
+    public StudentBulkService(
+            StudentBulkRepository studentBulkRepository,
+            BoundedPasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${students.bulk.batch-size:1000}") int batchSize,
+            @Value("${students.bulk.max-rows:20000}") int maxRows
+    ) {
+        this.studentBulkRepository = studentBulkRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    public BulkStudentResponse registerJson(InputStream body) {
+        Batch batch = new Batch();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BusinessException("Expected a JSON array of students");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (!batch.accept(objectMapper.readValue(parser, RegisterRequest.class))) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Invalid JSON payload at row " + (batch.rows + 1) + ": " + e.getMessage());
+        }
+        return batch.finish();
+    }
+
+    public BulkStudentResponse registerCsv(InputStream body) {
+        Batch batch = new Batch();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new BusinessException("CSV payload is empty");
+            }
+            int[] columns = csvColumns(Csv.parseLine(header.replace("\uFEFF", "")));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = Csv.parseLine(line);
+                boolean more = batch.accept(RegisterRequest.builder()
+                        .name(field(fields, columns[0]))
+                        .email(field(fields, columns[1]))
+                        .phoneNumber(field(fields, columns[2]))
+                        .password(field(fields, columns[3]))
+                        .build());
+                if (!more) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Could not read CSV payload: " + e.getMessage());
+        }
+        return batch.finish();
+    }
+
+    private int[] csvColumns(List<String> header) {
+        List<String> normalized = header.stream()
+                .map(column -> column.replace("_", "").toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = normalized.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new BusinessException("CSV header must contain name, email, phoneNumber and password");
+            }
+        }
+        return columns;
+    }
+
+    private String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private record Pending(BulkStudentRowResult result, RegisterRequest request) {
+    }
+
+    /**
+     * Accumulates one request's rows and flushes them to the database every {@code batchSize}.
+     */
+    private final class Batch {
+
+        private final List<BulkStudentRowResult> results = new ArrayList<>();
+        private final List<Pending> pending = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenPhoneNumbers = new HashSet<>();
+        private int rows;
+
+        /**
+         * @return false once the row limit is exceeded; that row is reported and the rest
+         *         of the upload must not be read
+         */
+        boolean accept(RegisterRequest request) {
+            BulkStudentRowResult result = BulkStudentRowResult.builder()
+                    .row(++rows)
+                    .email(request.getEmail())
+                    .build();
+            results.add(result);
+
+            if (rows > maxRows) {
+                reject(result, BulkRowStatus.INVALID,
+                        "Row limit of " + maxRows + " exceeded; the rest of the upload was not read");
+                return false;
+            }
+
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(result, BulkRowStatus.INVALID, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return true;
+            }
+            if (!seenEmails.add(request.getEmail())) {
+                reject(result, BulkRowStatus.DUPLICATE, "Email appears more than once in this upload");
+                return true;
+            }
+            if (!seenPhoneNumbers.add(request.getPhoneNumber())) {
+                reject(result, BulkRowStatus.DUPLICATE, "Phone number appears more than once in this upload");
+                return true;
+            }
+
+            pending.add(new Pending(result, request));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+            return true;
+        }
+
+        BulkStudentResponse finish() {
+            flush();
+            int created = (int) results.stream()
+                    .filter(result -> result.getStatus() == BulkRowStatus.CREATED)
+                    .count();
+            return BulkStudentResponse.builder()
+                    .total(results.size())
+                    .created(created)
+                    .rejected(results.size() - created)
+                    .results(results)
+                    .build();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            TakenContacts taken = studentBulkRepository.findTaken(
+                    pending.stream().map(row -> row.request().getEmail()).toList(),
+                    pending.stream().map(row -> row.request().getPhoneNumber()).toList());
+            List<Pending> accepted = new ArrayList<>(pending.size());
+            for (Pending row : pending) {
+                if (taken.emails().contains(row.request().getEmail())) {
+                    reject(row.result(), BulkRowStatus.DUPLICATE, "Email is already in use");
+                } else if (taken.phoneNumbers().contains(row.request().getPhoneNumber())) {
+                    reject(row.result(), BulkRowStatus.DUPLICATE, "Phone number is already in use");
+                } else {
+                    accepted.add(row);
+                }
+            }
+            pending.clear();
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            List<String> hashes = passwordEncoder.encodeAll(
+                    accepted.stream().map(row -> row.request().getPassword()).toList());
+            List<NewStudentAccount> accounts = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                RegisterRequest request = accepted.get(i).request();
+                accounts.add(new NewStudentAccount(
+                        request.getName(), request.getEmail(), request.getPhoneNumber(), hashes.get(i)));
+            }
+
+            try {
+                List<Long> studentIds = studentBulkRepository.insertAccounts(accounts);
+                for (int i = 0; i < accepted.size(); i++) {
+                    BulkStudentRowResult result = accepted.get(i).result();
+                    result.setStatus(BulkRowStatus.CREATED);
+                    result.setStudentId(studentIds.get(i));
+                }
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Bulk registration chunk of {} rows rolled back: {}", accepted.size(), e.getMostSpecificCause().getMessage());
+                accepted.forEach(row -> reject(row.result(), BulkRowStatus.FAILED,
+                        "Conflicts with a registration made while this upload was running"));
+            }
+        }
+
+        private void reject(BulkStudentRowResult result, BulkRowStatus status, String message) {
+            result.setStatus(status);
+            result.setMessage(message);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.guisandroni.classroom.management.Student.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.guisandroni.classroom.management.Common.AfterCommit;
+import com.guisandroni.classroom.management.Common.CacheInvalidation;
+import com.guisandroni.classroom.management.Common.CallerLoads;
+import com.guisandroni.classroom.management.Common.InvalidatableCache;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of student dashboards by student id. Write paths that change
+ * what a dashboard shows must evict it: enrollments evict the students involved, while
+ * class, training and resource changes evict everything. Evictions reach the other
+ * instances too.
+ */
+@Component
+public class StudentDashboardCache implements InvalidatableCache {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final AsyncCache<Long, StudentDashboardResponse> cache;
+
+    public StudentDashboardCache(
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${students.dashboard-cache.enabled:true}") boolean enabled,
+            @Value("${students.dashboard-cache.ttl:5m}") Duration ttl,
+            @Value("${students.dashboard-cache.max-size:10000}") long maxSize
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "students.dashboard");
+    }
+
+    public StudentDashboardResponse get(Long studentId, Function<Long, StudentDashboardResponse> loader) {
+        return enabled ? CallerLoads.get(cache, studentId, loader) : loader.apply(studentId);
+    }
+
+    public void evict(Long studentId) {
+        evict(List.of(studentId));
+    }
+
+    public void evict(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        List<Long> keys = List.copyOf(studentIds);
+        AfterCommit.runNowAndAfterCommit(() -> cache.synchronous().invalidateAll(keys));
+        eventPublisher.publishEvent(CacheInvalidation.of(CacheInvalidation.Region.DASHBOARDS, keys));
+    }
+
+    public void evictAll() {
+        AfterCommit.runNowAndAfterCommit(cache.synchronous()::invalidateAll);
+        eventPublisher.publishEvent(CacheInvalidation.all(CacheInvalidation.Region.DASHBOARDS));
+    }
+
+    @Override
+    public CacheInvalidation.Region region() {
+        return CacheInvalidation.Region.DASHBOARDS;
+    }
+
+    @Override
+    public void evictLocally(Collection<String> studentIds) {
+        cache.synchronous().invalidateAll(studentIds.stream().map(Long::valueOf).toList());
+    }
+
+    @Override
+    public void evictAllLocally() {
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,24 @@
+package com.guisandroni.classroom.management.Student.Service;
+
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves dashboards from {@link StudentDashboardCache}. Not transactional on purpose:
+ * a cache hit must not check out a connection, and a miss loads in its own read-only
+ * transaction through {@link StudentService#findDashboard(Long)}.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentDashboardService {
+
+    private final StudentService studentService;
+    private final StudentDashboardCache dashboardCache;
+    private final CurrentUserService currentUserService;
+
+    public StudentDashboardResponse findCurrentDashboard() {
+        return dashboardCache.get(currentUserService.currentStudentId(), studentService::findDashboard);
+    }
+}
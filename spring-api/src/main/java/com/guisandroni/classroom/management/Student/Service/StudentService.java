@@ -1,6 +1,24 @@
 package com.guisandroni.classroom.management.Student.Service;
 
-import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Service.AuthenticatedUser;
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
+import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Common.BulkDeleteRequest;
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Common.ExportFormat;
+import com.guisandroni.classroom.management.Common.JdbcExporter;
+import com.guisandroni.classroom.management.Common.MergePatch;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentBulkRepository.EnrollmentPair;
+import com.guisandroni.classroom.management.Enrollment.Repository.SeatAllocationRepository;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Resource.Repository.ResourceRepository;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardClassResponse;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
 import com.guisandroni.classroom.management.Student.DTO.StudentRequest;
 import com.guisandroni.classroom.management.Student.DTO.StudentResponse;
 import com.guisandroni.classroom.management.Student.Entity.Student;
@@ -8,33 +26,111 @@ import com.guisandroni.classroom.management.Student.Mapper.StudentMapper;
 import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
 import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
 import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StudentService {
 
+    private static final String EXPORT_SQL = """
+            SELECT s.id, s.name, s.email, s.phone_number AS "phoneNumber",
+                   (SELECT count(*) FROM enrollments e WHERE e.student_id = s.id) AS "enrollmentCount"
+            FROM students s
+            ORDER BY s.id
+            """;
+
+    private static final int SEARCH_MIN_LENGTH = 3;
+    private static final int SEARCH_MAX_LENGTH = 100;
+    private static final Pattern PHONE_LIKE = Pattern.compile("[\\d\\s()+.-]+");
+
     private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ClassRepository classRepository;
+    private final TrainingRepository trainingRepository;
+    private final ResourceRepository resourceRepository;
+    private final SeatAllocationRepository seatAllocationRepository;
+    private final CurrentUserService currentUserService;
+    private final JdbcExporter jdbcExporter;
+    private final StudentDashboardCache dashboardCache;
+    private final MergePatch mergePatch;
+
+    @Transactional(readOnly = true)
+    public CursorPage<StudentResponse> findPage(Long classId, String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        long afterId = Cursor.afterId(cursor, "id");
+        List<Student> rows = classId == null
+                ? studentRepository.findPage(afterId, Limit.of(pageSize + 1))
+                : studentRepository.findPageByClassId(classId, afterId, Limit.of(pageSize + 1));
+        return withEnrollments(CursorPage.of(rows, pageSize, student -> Cursor.encode("id", student.getId())));
+    }
 
+    /**
+     * Directory lookup by part of a name, email or phone number, ignoring case and accents.
+     * Phone numbers are compared by their digits alone, so punctuation is ignored both in
+     * the stored numbers and in a phone-like query.
+     */
     @Transactional(readOnly = true)
-    public List<StudentResponse> findAll() {
-        return studentRepository.findAll()
+    public CursorPage<StudentResponse> search(String q, Long notInClassId, String cursor, Integer limit) {
+        String term = q == null ? "" : q.strip();
+        // Trigram indexes cannot serve shorter terms, which would scan the whole table
+        if (term.length() < SEARCH_MIN_LENGTH) {
+            throw new BusinessException("q must be at least " + SEARCH_MIN_LENGTH + " characters");
+        }
+        if (term.length() > SEARCH_MAX_LENGTH) {
+            throw new BusinessException("q must be at most " + SEARCH_MAX_LENGTH + " characters");
+        }
+        String pattern = "%" + escapeLike(term) + "%";
+        String digits = term.replaceAll("\\D", "");
+        String phonePattern = PHONE_LIKE.matcher(term).matches() && digits.length() >= SEARCH_MIN_LENGTH
+                ? "%" + digits + "%"
+                : pattern;
+
+        int pageSize = Cursor.limit(limit);
+        long afterId = Cursor.afterId(cursor, "id");
+        List<Student> rows = notInClassId == null
+                ? studentRepository.search(pattern, phonePattern, afterId, Limit.of(pageSize + 1))
+                : studentRepository.searchNotInClass(pattern, phonePattern, notInClassId, afterId, Limit.of(pageSize + 1));
+        return withEnrollments(CursorPage.of(rows, pageSize, student -> Cursor.encode("id", student.getId())));
+    }
+
+    private CursorPage<StudentResponse> withEnrollments(CursorPage<Student> page) {
+        if (page.items().isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Map<Long, List<EnrollmentResponse>> enrollments = enrollmentRepository
+                .findResponsesByStudentIds(page.items().stream().map(Student::getId).toList())
                 .stream()
-                .map(StudentMapper::toStudentResponse)
+                .collect(Collectors.groupingBy(EnrollmentResponse::getStudentId));
+        List<StudentResponse> items = page.items().stream()
+                .map(student -> StudentMapper.toStudentResponse(student, enrollments.getOrDefault(student.getId(), List.of())))
                 .toList();
+        return new CursorPage<>(items, page.nextCursor());
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(ExportFormat format) {
+        return jdbcExporter.export("students", format, EXPORT_SQL);
     }
 
     @Transactional(readOnly = true)
     public StudentResponse findById(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-        return StudentMapper.toStudentResponse(student);
+        return toStudentResponse(student);
     }
 
     @Transactional
@@ -48,14 +144,32 @@ public class StudentService {
 
         Student student = StudentMapper.toStudent(request);
         student = studentRepository.save(student);
-        return StudentMapper.toStudentResponse(student);
+        return StudentMapper.toStudentResponse(student, List.of());
     }
 
     @Transactional
     public StudentResponse update(Long id, StudentRequest request) {
-        Student student = studentRepository.findById(id)
+        return update(findEntity(id), request);
+    }
+
+    @Transactional
+    public StudentResponse patch(Long id, InputStream patch, String ifMatch) {
+        Student student = findEntity(id);
+        mergePatch.checkVersion(student.getVersion(), ifMatch);
+        StudentRequest current = StudentMapper.toStudentRequest(student);
+        StudentRequest request = mergePatch.apply(current, patch);
+        if (request.equals(current)) {
+            return toStudentResponse(student);
+        }
+        return update(student, request);
+    }
+
+    private Student findEntity(Long id) {
+        return studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+    }
 
+    private StudentResponse update(Student student, StudentRequest request) {
         if (!student.getEmail().equals(request.getEmail()) &&
             studentRepository.existsByEmail(request.getEmail())) {
             throw new BusinessException("Email is already in use");
@@ -66,33 +180,75 @@ public class StudentService {
         }
 
         StudentMapper.updateStudent(student, request);
-        student = studentRepository.save(student);
-        return StudentMapper.toStudentResponse(student);
+        // Flushed here so the response carries the new version.
+        student = studentRepository.saveAndFlush(student);
+        dashboardCache.evict(student.getId());
+        return toStudentResponse(student);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!studentRepository.existsById(id)) {
-            throw new RuntimeException("Student not found with id: " + id);
+        if (deleteStudents(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
         }
-        studentRepository.deleteById(id);
+    }
+
+    @Transactional
+    public BulkDeleteResponse deleteAll(BulkDeleteRequest request) {
+        return BulkDeleteResponse.builder().deleted(deleteStudents(request.getIds())).build();
     }
 
     @Transactional(readOnly = true)
     public StudentResponse findCurrentStudent() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResourceNotFoundException("User not authenticated");
-        }
+        AuthenticatedUser user = currentUserService.currentUser();
+        Student student = (user.studentId() != null
+                ? studentRepository.findById(user.studentId())
+                : studentRepository.findByEmail(user.email()))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found for current user"));
+        return toStudentResponse(student);
+    }
 
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            throw new ResourceNotFoundException("Invalid user principal");
+    /**
+     * Everything a student's home screen shows, in four queries however many classes they
+     * are enrolled in: the student, their trainings, their classes and the published
+     * resources of those classes. Callers go through {@link StudentDashboardCache}.
+     */
+    @Transactional(readOnly = true)
+    public StudentDashboardResponse findDashboard(Long studentId) {
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+
+        Map<Long, List<ResourceResponse>> resources = resourceRepository.findVisibleResponsesByStudentId(studentId, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(ResourceResponse::getClassId));
+        List<StudentDashboardClassResponse> classes = new ArrayList<>();
+        for (ClassResponse classResponse : classRepository.findResponsesByStudentId(studentId)) {
+            classes.add(StudentMapper.toStudentDashboardClassResponse(
+                    classResponse, resources.getOrDefault(classResponse.getId(), List.of())));
         }
+        return StudentMapper.toStudentDashboardResponse(
+                student, trainingRepository.findResponsesByStudentId(studentId), classes);
+    }
 
-        User user = (User) principal;
-        Student student = studentRepository.findByEmail(user.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found for current user"));
-        return StudentMapper.toStudentResponse(student);
+    private StudentResponse toStudentResponse(Student student) {
+        return StudentMapper.toStudentResponse(student, enrollmentRepository.findResponsesByStudentId(student.getId()));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private int deleteStudents(List<Long> ids) {
+        // The enrollments go with the students; their seats go to the waitlists.
+        List<Long> classIds = seatAllocationRepository.releaseStudents(ids);
+        int deleted = studentRepository.deleteAllByIdIn(ids);
+        List<Long> affected = new ArrayList<>(ids);
+        for (Long classId : classIds) {
+            seatAllocationRepository.promote(classId).stream()
+                    .map(EnrollmentPair::studentId)
+                    .forEach(affected::add);
+        }
+        dashboardCache.evict(affected);
+        return deleted;
     }
 }
@@ -1,15 +1,25 @@
 package com.guisandroni.classroom.management.Training.Controller;
 
+import com.guisandroni.classroom.management.Common.BulkDeleteRequest;
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.ConditionalGet;
+import com.guisandroni.classroom.management.Common.MergePatch;
 import com.guisandroni.classroom.management.Training.DTO.TrainingRequest;
 import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
 import com.guisandroni.classroom.management.Training.Service.TrainingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,11 +28,16 @@ import java.util.List;
 public class TrainingController {
 
     private final TrainingService trainingService;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<TrainingResponse>> findAll() {
-        return ResponseEntity.ok(trainingService.findAll());
+    public ResponseEntity<List<TrainingResponse>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersions.etag(Aggregate.TRAINING),
+                () -> trainingService.findPage(cursor, limit).toResponseEntity());
     }
 
     @GetMapping("/{id}")
@@ -49,10 +64,25 @@ public class TrainingController {
         return ResponseEntity.ok(trainingService.update(id, request));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrainingResponse> patch(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        return ResponseEntity.ok(trainingService.patch(id, body, ifMatch));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         trainingService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(trainingService.deleteAll(request));
+    }
 }
@@ -13,4 +13,5 @@ public class TrainingResponse {
     private Long id;
     private String name;
     private String description;
+    private Long version;
 }
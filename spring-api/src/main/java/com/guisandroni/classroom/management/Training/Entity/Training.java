@@ -6,6 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
@@ -16,18 +19,26 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "trainings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-training")
+@DynamicUpdate
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_seq")
+    @SequenceGenerator(name = "training_seq", sequenceName = "trainings_id_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(length = 100, nullable = false)
     private String name;
 
     @Column(length = 300)
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-training-classes")
     @OneToMany(mappedBy = "training", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Class> classes;
 }
@@ -18,6 +18,14 @@ public class TrainingMapper {
     public static TrainingResponse toTrainingResponse(Training training) {
         return TrainingResponse.builder()
                 .id(training.getId())
+                .name(training.getName())
+                .description(training.getDescription())
+                .version(training.getVersion())
+                .build();
+    }
+
+    public static TrainingRequest toTrainingRequest(Training training) {
+        return TrainingRequest.builder()
                 .name(training.getName())
                 .description(training.getDescription())
                 .build();
@@ -1,13 +1,38 @@
 package com.guisandroni.classroom.management.Training.Repository;
 
+import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
 import com.guisandroni.classroom.management.Training.Entity.Training;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long> {
     Optional<Training> findByName(String name);
     boolean existsByName(String name);
+
+    @Query("SELECT new com.guisandroni.classroom.management.Training.DTO.TrainingResponse(t.id, t.name, t.description, t.version) " +
+            "FROM Training t " +
+            "WHERE t.id > :afterId " +
+            "ORDER BY t.id")
+    List<TrainingResponse> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT DISTINCT new com.guisandroni.classroom.management.Training.DTO.TrainingResponse(t.id, t.name, t.description, t.version) " +
+            "FROM Enrollment e JOIN e.classEntity c JOIN c.training t " +
+            "WHERE e.studentEntity.id = :studentId")
+    List<TrainingResponse> findResponsesByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * One statement; the database cascades to classes, their enrollments, waitlists and resources.
+     */
+    @Modifying
+    @Query("DELETE FROM Training t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
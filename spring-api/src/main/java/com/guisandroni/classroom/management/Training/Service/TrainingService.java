@@ -1,38 +1,45 @@
 package com.guisandroni.classroom.management.Training.Service;
 
-import com.guisandroni.classroom.management.Auth.Entity.User;
-import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
-import com.guisandroni.classroom.management.Student.Entity.Student;
-import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Common.BulkDeleteRequest;
+import com.guisandroni.classroom.management.Common.BulkDeleteResponse;
+import com.guisandroni.classroom.management.Common.CatalogCache;
+import com.guisandroni.classroom.management.Common.CatalogVersions;
+import com.guisandroni.classroom.management.Common.CatalogVersions.Aggregate;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Common.MergePatch;
 import com.guisandroni.classroom.management.Training.DTO.TrainingRequest;
 import com.guisandroni.classroom.management.Training.DTO.TrainingResponse;
 import com.guisandroni.classroom.management.Training.Entity.Training;
 import com.guisandroni.classroom.management.Training.Mapper.TrainingMapper;
 import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
 import com.guisandroni.classroom.management.Exception.ResourceNotFoundException;
+import com.guisandroni.classroom.management.Student.Service.StudentDashboardCache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TrainingService {
 
     private final TrainingRepository trainingRepository;
-    private final StudentRepository studentRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private final CurrentUserService currentUserService;
+    private final StudentDashboardCache dashboardCache;
+    private final CatalogVersions catalogVersions;
+    private final CatalogCache catalogCache;
+    private final MergePatch mergePatch;
 
     @Transactional(readOnly = true)
-    public List<TrainingResponse> findAll() {
-        return trainingRepository.findAll()
-                .stream()
-                .map(TrainingMapper::toTrainingResponse)
-                .toList();
+    public CursorPage<TrainingResponse> findPage(String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<TrainingResponse> rows = trainingRepository.findPage(Cursor.afterId(cursor, "id"), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, row -> Cursor.encode("id", row.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -46,49 +53,66 @@ public class TrainingService {
     public TrainingResponse create(TrainingRequest request) {
         Training training = TrainingMapper.toTraining(request);
         training = trainingRepository.save(training);
+        catalogVersions.bump(Aggregate.TRAINING);
         return TrainingMapper.toTrainingResponse(training);
     }
 
     @Transactional
     public TrainingResponse update(Long id, TrainingRequest request) {
-        Training training = trainingRepository.findById(id)
+        return update(findEntity(id), request);
+    }
+
+    @Transactional
+    public TrainingResponse patch(Long id, InputStream patch, String ifMatch) {
+        Training training = findEntity(id);
+        mergePatch.checkVersion(training.getVersion(), ifMatch);
+        TrainingRequest current = TrainingMapper.toTrainingRequest(training);
+        TrainingRequest request = mergePatch.apply(current, patch);
+        if (request.equals(current)) {
+            return TrainingMapper.toTrainingResponse(training);
+        }
+        return update(training, request);
+    }
+
+    private Training findEntity(Long id) {
+        return trainingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Training not found with id: " + id));
+    }
 
+    private TrainingResponse update(Training training, TrainingRequest request) {
         TrainingMapper.updateTraining(training, request);
-        training = trainingRepository.save(training);
+        // Flushed here so the response carries the new version.
+        training = trainingRepository.saveAndFlush(training);
+        catalogVersions.bump(Aggregate.TRAINING);
+        dashboardCache.evictAll();
         return TrainingMapper.toTrainingResponse(training);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!trainingRepository.existsById(id)) {
-            throw new RuntimeException("Training not found with id: " + id);
+        if (trainingRepository.deleteAllByIdIn(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Training not found with id: " + id);
         }
-        trainingRepository.deleteById(id);
+        evictDeleted();
     }
 
-    @Transactional(readOnly = true)
-    public List<TrainingResponse> findTrainingsForCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResourceNotFoundException("User not authenticated");
-        }
-
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
-            throw new ResourceNotFoundException("Invalid user principal");
+    @Transactional
+    public BulkDeleteResponse deleteAll(BulkDeleteRequest request) {
+        int deleted = trainingRepository.deleteAllByIdIn(request.getIds());
+        if (deleted > 0) {
+            evictDeleted();
         }
+        return BulkDeleteResponse.builder().deleted(deleted).build();
+    }
 
-        User user = (User) principal;
-        Student student = studentRepository.findByEmail(user.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found for current user"));
-
-        var enrollments = enrollmentRepository.findByStudentEntityId(student.getId());
+    @Transactional(readOnly = true)
+    public List<TrainingResponse> findTrainingsForCurrentUser() {
+        return trainingRepository.findResponsesByStudentId(currentUserService.currentStudentId());
+    }
 
-        return enrollments.stream()
-                .map(enrollment -> enrollment.getClassEntity().getTraining())
-                .distinct()
-                .map(TrainingMapper::toTrainingResponse)
-                .collect(Collectors.toList());
+    private void evictDeleted() {
+        // The database took their classes, resources, enrollments and waitlists with them.
+        catalogCache.evict(Aggregate.TRAINING, Aggregate.CLASS, Aggregate.RESOURCE);
+        dashboardCache.evictAll();
     }
 }
@@ -0,0 +1,15 @@
+-- GET /api/classes?from=&to= and enrollment conflict checks compare class schedules as
+-- tsrange(start_date, end_date), half-open, so a class ending at 10:00 does not overlap one
+-- starting at 10:00.
+
+-- tsrange() rejects an upper bound below the lower one; the API has always refused those
+ALTER TABLE classes
+    ADD CONSTRAINT ck_classes_schedule CHECK (end_date >= start_date);
+
+-- Overlap (&&) lookups. An expression index rather than a generated column, because the
+-- JPQL listing queries can only reach mapped columns, and the expression is what they send.
+CREATE INDEX idx_classes_schedule ON classes USING gist (tsrange(start_date, end_date));
+
+-- The listing also bounds start_date by from minus the longest class; max() over this is a
+-- single index probe.
+CREATE INDEX idx_classes_duration ON classes ((end_date - start_date));
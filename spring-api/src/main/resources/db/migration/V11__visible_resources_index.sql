@@ -0,0 +1,3 @@
+-- GET /api/resources/my and the student dashboard only ever read published resources, by
+-- class. Drafts are left out of the index, so it stays as small as what students can see.
+CREATE INDEX idx_resources_published_class_id ON resources (class_id) WHERE draft = false;
@@ -0,0 +1,10 @@
+-- Phone numbers are stored as they were typed, with or without punctuation. The directory
+-- search matches on their digits alone, so "(11) 98888-1002" and "11988881002" are found by
+-- the same query.
+CREATE FUNCTION phone_digits(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    RETURN regexp_replace($1, '\D', '', 'g');
+
+CREATE INDEX idx_students_phone_digits_trgm ON students USING gin (phone_digits(phone_number) gin_trgm_ops);
+
+DROP INDEX idx_students_phone_number_trgm;
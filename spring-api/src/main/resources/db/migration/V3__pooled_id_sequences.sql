@@ -0,0 +1,8 @@
+-- Let Hibernate reserve ids in blocks of 50 (pooled optimizer) so inserts can be batched.
+-- Must match allocationSize in the entities' @SequenceGenerator.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE trainings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE classes_id_seq INCREMENT BY 50;
+ALTER SEQUENCE students_id_seq INCREMENT BY 50;
+ALTER SEQUENCE enrollments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE resources_id_seq INCREMENT BY 50;
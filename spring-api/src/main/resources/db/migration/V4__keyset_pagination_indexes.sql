@@ -0,0 +1,17 @@
+-- Composite indexes backing keyset pagination (ORDER BY key, id with WHERE (key, id) > cursor)
+-- and the list filters. Each replaces a single-column index that is now its prefix.
+
+-- GET /api/classes: default sort is start_date, id; optional training filter
+CREATE INDEX idx_classes_start_date_id ON classes(start_date, id);
+CREATE INDEX idx_classes_training_id_start_date_id ON classes(training_id, start_date, id);
+DROP INDEX idx_classes_training_id;
+
+-- GET /api/resources?classId=
+CREATE INDEX idx_resources_class_id_id ON resources(class_id, id);
+DROP INDEX idx_resources_class_id;
+
+-- GET /api/enrollments?classId= / ?studentId=
+CREATE INDEX idx_enrollments_class_id_id ON enrollments(class_id, id);
+DROP INDEX idx_enrollments_class_id;
+CREATE INDEX idx_enrollments_student_id_id ON enrollments(student_id, id);
+DROP INDEX idx_enrollments_student_id;
@@ -0,0 +1,23 @@
+-- CSV roster imports. Each upload is COPYed into a session-local staging table, validated
+-- and merged into enrollments; only the outcome and the rejected rows are kept here.
+CREATE TABLE enrollment_imports (
+    id BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    total_rows BIGINT NOT NULL DEFAULT 0,
+    enrolled_rows BIGINT NOT NULL DEFAULT 0,
+    skipped_rows BIGINT NOT NULL DEFAULT 0,
+    rejected_rows BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_enrollment_imports_created_at ON enrollment_imports(created_at);
+
+-- Download-only report data: unlogged, so writing it costs no WAL; it is simply lost on a crash.
+CREATE UNLOGGED TABLE enrollment_import_rejections (
+    import_id BIGINT NOT NULL,
+    line BIGINT NOT NULL,
+    email TEXT,
+    class_name TEXT,
+    reason VARCHAR(100) NOT NULL,
+    CONSTRAINT pk_enrollment_import_rejections PRIMARY KEY (import_id, line),
+    CONSTRAINT fk_rejection_import FOREIGN KEY (import_id) REFERENCES enrollment_imports(id) ON DELETE CASCADE
+);
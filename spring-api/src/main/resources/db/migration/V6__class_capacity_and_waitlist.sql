@@ -0,0 +1,32 @@
+-- Seat allocation. seats_taken is maintained by the application with conditional updates
+-- (never written through JPA); the check constraint is the last line of defence against
+-- over-allocation. A NULL capacity means the class is unlimited.
+ALTER TABLE classes
+    ADD COLUMN capacity INTEGER,
+    ADD COLUMN seats_taken INTEGER NOT NULL DEFAULT 0;
+
+UPDATE classes c
+SET seats_taken = e.taken
+FROM (SELECT class_id, count(*) AS taken FROM enrollments GROUP BY class_id) e
+WHERE e.class_id = c.id;
+
+ALTER TABLE classes
+    ADD CONSTRAINT ck_classes_capacity CHECK (capacity IS NULL OR capacity >= 0),
+    ADD CONSTRAINT ck_classes_seats_taken CHECK (seats_taken >= 0 AND (capacity IS NULL OR seats_taken <= capacity));
+
+-- Students waiting for a seat, promoted first come, first served
+CREATE TABLE class_waitlist (
+    id BIGSERIAL PRIMARY KEY,
+    class_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT fk_waitlist_class FOREIGN KEY (class_id) REFERENCES classes(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_student FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
+    CONSTRAINT uk_class_waitlist UNIQUE (class_id, student_id)
+);
+
+CREATE INDEX idx_class_waitlist_class_id_id ON class_waitlist(class_id, id);
+CREATE INDEX idx_class_waitlist_student_id ON class_waitlist(student_id);
+
+-- Roster imports report the rows that went to a waitlist
+ALTER TABLE enrollment_imports ADD COLUMN waitlisted_rows BIGINT NOT NULL DEFAULT 0;
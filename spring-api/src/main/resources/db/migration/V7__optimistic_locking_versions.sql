@@ -0,0 +1,6 @@
+-- Row versions for optimistic locking of admin edits (JPA @Version). A constant default
+-- makes this a catalog-only change; existing rows start at version 0.
+ALTER TABLE trainings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE classes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE resources ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE students ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,47 @@
+-- GET /api/search: full-text search over the catalog and typeahead on names.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Full text: Portuguese stemming that also ignores accents, so "introducao" finds "Introdução"
+CREATE TEXT SEARCH CONFIGURATION portuguese_unaccent (COPY = portuguese);
+ALTER TEXT SEARCH CONFIGURATION portuguese_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+
+-- Typeahead: whole words without stemming or stop words, so prefixes of any word match
+CREATE TEXT SEARCH CONFIGURATION simple_unaccent (COPY = simple);
+ALTER TEXT SEARCH CONFIGURATION simple_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple;
+
+-- Names weigh more than descriptions in the ranking
+ALTER TABLE trainings
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese_unaccent', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('portuguese_unaccent', coalesce(description, '')), 'B')
+    ) STORED,
+    ADD COLUMN name_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple_unaccent', name)) STORED;
+
+ALTER TABLE classes
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese_unaccent', coalesce(name, '')), 'A')
+    ) STORED,
+    ADD COLUMN name_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple_unaccent', name)) STORED;
+
+ALTER TABLE resources
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese_unaccent', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('portuguese_unaccent', coalesce(description, '')), 'B')
+    ) STORED,
+    ADD COLUMN name_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple_unaccent', name)) STORED;
+
+CREATE INDEX idx_trainings_search_vector ON trainings USING gin (search_vector);
+CREATE INDEX idx_trainings_name_vector ON trainings USING gin (name_vector);
+CREATE INDEX idx_classes_search_vector ON classes USING gin (search_vector);
+CREATE INDEX idx_classes_name_vector ON classes USING gin (name_vector);
+CREATE INDEX idx_resources_search_vector ON resources USING gin (search_vector);
+CREATE INDEX idx_resources_name_vector ON resources USING gin (name_vector);
+
+-- Word frequencies are very uneven; a larger sample lets the planner tell rare words, read
+-- through the GIN index, from common ones, read newest first along the primary key.
+ALTER TABLE resources ALTER COLUMN search_vector SET STATISTICS 1000;
+ALTER TABLE resources ALTER COLUMN name_vector SET STATISTICS 1000;
@@ -0,0 +1,13 @@
+-- GET /api/students/search: accent- and case-insensitive substring search on name, email
+-- and phone number. Extensions come from V8.
+
+-- unaccent() depends on the search path, so it cannot be used in an index. This pins the
+-- dictionary, which makes the result depend on the input alone.
+CREATE FUNCTION immutable_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    RETURN public.unaccent('public.unaccent'::regdictionary, $1);
+
+-- ILIKE '%term%' on each column is answered from these and combined with a BitmapOr
+CREATE INDEX idx_students_name_trgm ON students USING gin (immutable_unaccent(name) gin_trgm_ops);
+CREATE INDEX idx_students_email_trgm ON students USING gin (immutable_unaccent(email) gin_trgm_ops);
+CREATE INDEX idx_students_phone_number_trgm ON students USING gin (phone_number gin_trgm_ops);
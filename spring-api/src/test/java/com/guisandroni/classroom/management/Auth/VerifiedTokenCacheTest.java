@@ -0,0 +1,47 @@
+package com.guisandroni.classroom.management.Auth;
+
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import com.guisandroni.classroom.management.Auth.Service.VerifiedToken;
+import com.guisandroni.classroom.management.Auth.Service.VerifiedTokenCache;
+import com.guisandroni.classroom.management.Exception.TokenExpiredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A cached token is only served until its {@code exp}, however long the entry could stay
+ * in the cache. Uses a real short-lived token, so it waits about two seconds.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvblRoYXRJc0F0TGVhc3QyNTZCaXRzTG9uZzIwMjQ=";
+
+    @Test
+    void neverServesATokenPastItsExpiration() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, new SimpleMeterRegistry());
+        JwtService jwtService = new JwtService(cache);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 2000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        String token = jwtService.generateToken(User.builder()
+                .id(1L)
+                .email("expiry@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        VerifiedToken first = jwtService.verify(token);
+        assertThat(jwtService.verify(token)).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+
+        // exp has second precision, so wait for the claim itself rather than a fixed delay
+        Thread.sleep(Math.max(0, first.expiration().getTime() - System.currentTimeMillis()) + 50);
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(TokenExpiredException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.guisandroni.classroom.management;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Common.BulkDeleteRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Service.StudentService;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import com.guisandroni.classroom.management.Training.Service.TrainingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deletes must be set-based and leave the cascading to the database instead of loading
+ * and deleting every child row.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BulkDeleteTest {
+
+    private static final int CLASSES = 50;
+    private static final int STUDENTS = 200;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Training training;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Delete");
+    }
+
+    @Test
+    void deletingTrainingCascadesInTheDatabase() {
+        List<Class> classes = new ArrayList<>();
+        for (int i = 0; i < CLASSES; i++) {
+            classes.add(testData.newClass(training, "Delete class"));
+        }
+        List<Student> students = testData.newStudents("Delete student", STUDENTS);
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (Class classEntity : classes) {
+            for (Student student : students) {
+                enrollments.add(Enrollment.builder().classEntity(classEntity).studentEntity(student).build());
+            }
+        }
+        enrollmentRepository.saveAll(enrollments);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        trainingService.delete(training.getId());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2, "Expected a single bulk delete, but " + statements + " statements were prepared");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollments WHERE class_id = ANY(?)", Integer.class,
+                (Object) classes.stream().map(Class::getId).toArray(Long[]::new)));
+    }
+
+    @Test
+    void bulkDeletingStudentsHandsTheirSeatsToTheWaitlist() {
+        Class classEntity = testData.newClass(training, "Delete class", 2);
+        List<Student> students = testData.newStudents("Delete student", 4);
+        entityManager.flush();
+        students.forEach(student -> enrollmentService.create(
+                EnrollmentRequest.builder().classId(classEntity.getId()).studentId(student.getId()).build()));
+
+        int deleted = studentService.deleteAll(BulkDeleteRequest.builder()
+                .ids(List.of(students.get(0).getId(), students.get(1).getId()))
+                .build()).getDeleted();
+
+        assertEquals(2, deleted);
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT seats_taken FROM classes WHERE id = ?", Integer.class, classEntity.getId()));
+        assertEquals(List.of(students.get(2).getId(), students.get(3).getId()), jdbcTemplate.queryForList(
+                "SELECT student_id FROM enrollments WHERE class_id = ? ORDER BY student_id", Long.class, classEntity.getId()));
+        assertEquals(0, enrollmentService.findWaitlist(classEntity.getId()).size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.guisandroni.classroom.management.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guisandroni.classroom.management.Auth.Entity.User;
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.CurrentUserService;
+import com.guisandroni.classroom.management.Auth.Service.JwtService;
+import com.guisandroni.classroom.management.Auth.Service.VerifiedTokenCache;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the database lookups made to authenticate a request and resolve the current
+ * student, with and without {@code jwt.claims-only}.
+ */
+class ClaimsOnlyAuthenticationQueryCountTest {
+
+    private static final int REQUESTS = 100;
+    private static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvblRoYXRJc0F0TGVhc3QyNTZCaXRzTG9uZzIwMjQ=";
+
+    private final User user = User.builder()
+            .id(7L)
+            .name("Ana Santos")
+            .email("ana.santos@email.com")
+            .phoneNumber("11988881002")
+            .password("encoded")
+            .role(Role.STUDENT)
+            .build();
+
+    private JwtService jwtService;
+    private StudentRepository studentRepository;
+    private CurrentUserService currentUserService;
+    private AtomicInteger userLookups;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new VerifiedTokenCache(true, 100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        studentRepository = mock(StudentRepository.class);
+        when(studentRepository.findByEmail(anyString()))
+                .thenReturn(Optional.of(Student.builder().id(42L).email(user.getEmail()).build()));
+        currentUserService = new CurrentUserService(studentRepository);
+        userLookups = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void databaseBackedModeQueriesUsersAndStudentsOnEveryRequest() throws Exception {
+        double queriesPerRequest = run(false);
+
+        assertThat(queriesPerRequest).isEqualTo(2.0);
+    }
+
+    @Test
+    void claimsOnlyModeResolvesPrincipalAndStudentWithoutQueries() throws Exception {
+        double queriesPerRequest = run(true);
+
+        assertThat(queriesPerRequest).isZero();
+    }
+
+    private double run(boolean claimsOnly) throws Exception {
+        UserDetailsService userDetailsService = username -> {
+            userLookups.incrementAndGet();
+            return user;
+        };
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "claimsOnly", claimsOnly);
+        String token = jwtService.generateToken(user, 42L);
+
+        AtomicInteger resolved = new AtomicInteger();
+        for (int i = 0; i < REQUESTS; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainings/my");
+            request.addHeader("Authorization", "Bearer " + token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, (req, res) -> {
+                assertThat(currentUserService.currentStudentId()).isEqualTo(42L);
+                resolved.incrementAndGet();
+            });
+            assertThat(response.getStatus()).isEqualTo(200);
+            SecurityContextHolder.clearContext();
+        }
+        assertThat(resolved).hasValue(REQUESTS);
+
+        long studentLookups = mockingDetails(studentRepository).getInvocations().size();
+        return (double) (userLookups.get() + studentLookups) / REQUESTS;
+    }
+}
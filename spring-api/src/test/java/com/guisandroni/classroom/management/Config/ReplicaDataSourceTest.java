@@ -0,0 +1,118 @@
+package com.guisandroni.classroom.management.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which pool a read-only transaction gets its connection from, given the lag reported for
+ * each replica. The lag checks themselves are not run.
+ */
+class ReplicaDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    private HikariDataSource first;
+    private ReadYourWrites readYourWrites;
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource primary = pool("primary", primaryConnection);
+        first = pool("replica-1", firstConnection);
+        HikariDataSource second = pool("replica-2", secondConnection);
+        readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), 100);
+        dataSource = ReplicaDataSource.withoutHealthChecks(primary, List.of(first, second), readYourWrites,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsFromThePrimaryUntilAReplicaIsReported() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void roundRobinsOverHealthyReplicas() throws SQLException {
+        dataSource.recordLag(0, 0.0);
+        dataSource.recordLag(1, 4.5);
+
+        assertThat(List.of(dataSource.getConnection(), dataSource.getConnection(), dataSource.getConnection()))
+                .containsExactly(firstConnection, secondConnection, firstConnection);
+    }
+
+    @Test
+    void skipsLaggingAndNotStreamingReplicas() throws SQLException {
+        dataSource.recordLag(0, 0.0);
+        dataSource.recordLag(1, 30.0);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+
+        dataSource.recordLag(0, null);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void takesOutAReplicaThatFailsToConnect() throws SQLException {
+        dataSource.recordLag(0, 0.0);
+        when(first.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        doReturn(firstConnection).when(first).getConnection();
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        dataSource.recordLag(0, 0.0);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+    }
+
+    @Test
+    void keepsARecentWriterOnThePrimary() throws SQLException {
+        dataSource.recordLag(0, 0.0);
+        dataSource.recordLag(1, 0.0);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("writer@test.com", null, List.of()));
+
+        TransactionExecution write = mock(TransactionExecution.class);
+        when(write.isNewTransaction()).thenReturn(true);
+        readYourWrites.afterCommit(write, null);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void doesNotHandOutConnectionsForOtherCredentials() {
+        assertThatThrownBy(() -> dataSource.getConnection("someone", "secret"))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    private static HikariDataSource pool(String name, Connection connection) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
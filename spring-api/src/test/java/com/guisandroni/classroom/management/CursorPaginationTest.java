@@ -0,0 +1,172 @@
+package com.guisandroni.classroom.management;
+
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.Common.Cursor;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import com.guisandroni.classroom.management.Resource.Service.ResourceService;
+import com.guisandroni.classroom.management.Student.DTO.StudentResponse;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Service.StudentService;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keyset pages of the list endpoints: following the cursor returns every row once and in
+ * order for each filter, the last page has no cursor, and bad cursors answer 400.
+ */
+@SpringBootTest
+@Transactional
+class CursorPaginationTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Training training;
+    private Class later;
+    private Class earlier;
+    private List<Student> students;
+    private List<Enrollment> enrollments;
+    private List<Resource> resources;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Páginas");
+        // Created first but starting later, so the two sorts disagree
+        LocalDateTime start = LocalDateTime.now();
+        later = testData.newClass(training, "Turma B", start.plusMonths(2), start.plusMonths(3));
+        earlier = testData.newClass(training, "Turma A", start.plusMonths(1), start.plusMonths(2));
+
+        students = testData.newStudents("Aluno", 5);
+        enrollments = new ArrayList<>();
+        students.forEach(student -> enrollments.add(testData.enroll(later, student)));
+        enrollments.add(testData.enroll(earlier, students.getFirst()));
+
+        resources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            resources.add(testData.newResource(later, "Material " + i,
+                    i % 2 == 0 ? ResourcesType.PDF : ResourcesType.VIDEO, false, i == 3));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void followsTheCursorThroughEveryEnrollmentFilter() {
+        Long classId = later.getId();
+        Long studentId = students.getFirst().getId();
+
+        assertEquals(ids(enrollments.subList(0, 5), Enrollment::getId),
+                pageAll(2, (cursor, limit) -> enrollmentService.findPage(classId, null, cursor, limit), EnrollmentResponse::getId));
+        assertEquals(List.of(enrollments.getFirst().getId(), enrollments.getLast().getId()),
+                pageAll(1, (cursor, limit) -> enrollmentService.findPage(null, studentId, cursor, limit), EnrollmentResponse::getId));
+        assertEquals(List.of(enrollments.getFirst().getId()),
+                pageAll(1, (cursor, limit) -> enrollmentService.findPage(classId, studentId, cursor, limit), EnrollmentResponse::getId));
+
+        // Unfiltered, from a cursor just before the rows created here
+        String before = Cursor.encode("id", enrollments.getFirst().getId() - 1);
+        assertEquals(ids(enrollments.subList(0, 3), Enrollment::getId),
+                enrollmentService.findPage(null, null, before, 3).items().stream().map(EnrollmentResponse::getId).toList());
+    }
+
+    @Test
+    void followsTheCursorThroughClassesStudentsAndResources() {
+        assertEquals(List.of(earlier.getId(), later.getId()),
+                pageAll(1, (cursor, limit) -> classService.findPage(training.getId(), null, null,
+                        ClassService.SORT_START_DATE, cursor, limit), ClassResponse::getId));
+        assertEquals(List.of(later.getId(), earlier.getId()),
+                pageAll(1, (cursor, limit) -> classService.findPage(training.getId(), null, null,
+                        ClassService.SORT_ID, cursor, limit), ClassResponse::getId));
+
+        assertEquals(ids(students, Student::getId),
+                pageAll(2, (cursor, limit) -> studentService.findPage(later.getId(), cursor, limit), StudentResponse::getId));
+
+        Long classId = later.getId();
+        assertEquals(ids(resources, Resource::getId),
+                pageAll(3, (cursor, limit) -> resourceService.findPage(classId, null, null, cursor, limit), ResourceResponse::getId));
+        assertEquals(List.of(resources.get(0).getId(), resources.get(1).getId(), resources.get(2).getId()),
+                pageAll(2, (cursor, limit) -> resourceService.findPage(classId, false, null, cursor, limit), ResourceResponse::getId));
+        assertEquals(List.of(resources.get(1).getId(), resources.get(3).getId()),
+                pageAll(1, (cursor, limit) -> resourceService.findPage(classId, null, ResourcesType.VIDEO, cursor, limit), ResourceResponse::getId));
+    }
+
+    @Test
+    void aFullLastPageHasNoCursor() {
+        CursorPage<EnrollmentResponse> page = enrollmentService.findPage(later.getId(), null, null, 5);
+        assertEquals(5, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        assertThrows(BusinessException.class, () -> enrollmentService.findPage(null, null, "not a cursor!", null));
+        assertThrows(BusinessException.class, () -> enrollmentService.findPage(null, null, Cursor.encode("id", "abc"), null));
+        // Issued for another sort
+        String byId = classService.findPage(training.getId(), null, null, ClassService.SORT_ID, null, 1).nextCursor();
+        assertThrows(BusinessException.class, () -> classService.findPage(training.getId(), null, null,
+                ClassService.SORT_START_DATE, byId, 1));
+        assertThrows(BusinessException.class, () -> classService.findPage(training.getId(), null, null,
+                ClassService.SORT_START_DATE, Cursor.encode(ClassService.SORT_START_DATE, "yesterday", 1), 1));
+    }
+
+    private interface PageQuery<T> {
+        CursorPage<T> fetch(String cursor, Integer limit);
+    }
+
+    /**
+     * Follows the cursor to the end. Every page but the last must be full.
+     */
+    private static <T> List<Long> pageAll(int limit, PageQuery<T> query, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> page = query.fetch(cursor, limit);
+            cursor = page.nextCursor();
+            if (cursor != null) {
+                assertEquals(limit, page.items().size());
+            }
+            page.items().forEach(item -> ids.add(id.apply(item)));
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static <T> List<Long> ids(List<T> rows, Function<T, Long> id) {
+        return rows.stream().map(id).toList();
+    }
+}
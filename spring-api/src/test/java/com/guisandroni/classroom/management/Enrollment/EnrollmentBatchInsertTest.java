@@ -0,0 +1,73 @@
+package com.guisandroni.classroom.management.Enrollment;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saving 1,000 enrollments must go out as JDBC batches, not one statement per row.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class EnrollmentBatchInsertTest {
+
+    private static final int CLASSES = 20;
+    private static final int STUDENTS = 50;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void savingThousandEnrollmentsIsBatched() {
+        Training training = testData.newTraining("Batch");
+        List<Class> classes = new ArrayList<>();
+        for (int i = 0; i < CLASSES; i++) {
+            classes.add(testData.newClass(training, "Batch class " + i));
+        }
+        List<Student> students = testData.newStudents("Batch student", STUDENTS);
+        entityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (Class classEntity : classes) {
+            for (Student student : students) {
+                enrollments.add(Enrollment.builder().classEntity(classEntity).studentEntity(student).build());
+            }
+        }
+        enrollmentRepository.saveAll(enrollments);
+        entityManager.flush();
+
+        assertEquals(CLASSES * STUDENTS, statistics.getEntityInsertCount());
+        // 1,000 rows / batch_size 50 = 20 insert batches, plus 20 sequence calls for the id blocks.
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 45, "Expected batched inserts, but " + statements + " statements were prepared");
+    }
+}
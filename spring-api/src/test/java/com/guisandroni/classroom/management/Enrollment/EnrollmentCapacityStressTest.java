@@ -0,0 +1,130 @@
+package com.guisandroni.classroom.management.Enrollment;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentOutcome;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.WaitlistEntryResponse;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many students race for the seats of one class. No class may ever hold more enrollments
+ * than its capacity, every other student must end up on the waitlist, and freed seats must
+ * go to the waitlist in order. Commits for real, so it cleans up after itself.
+ */
+@SpringBootTest
+class EnrollmentCapacityStressTest {
+
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 2000;
+    private static final int THREADS = 64;
+    private static final int WITHDRAWALS = 20;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Training training;
+    private Class classEntity;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Stress");
+        classEntity = testData.newClass(training, "Stress class", CAPACITY);
+        students = testData.newStudents("Stress student", STUDENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE id = ?", training.getId());
+        jdbcTemplate.update("DELETE FROM students WHERE id = ANY(?)",
+                (Object) students.stream().map(Student::getId).toArray(Long[]::new));
+    }
+
+    @Test
+    void concurrentEnrollmentsNeverExceedCapacity() throws Exception {
+        List<Callable<EnrollmentOutcome>> requests = students.stream()
+                .map(student -> (Callable<EnrollmentOutcome>) () -> enrollmentService.create(
+                        EnrollmentRequest.builder().classId(classEntity.getId()).studentId(student.getId()).build()))
+                .toList();
+
+        List<EnrollmentOutcome> outcomes = runConcurrently(requests);
+
+        long enrolled = outcomes.stream().filter(outcome -> outcome.getEnrollment() != null).count();
+        assertEquals(CAPACITY, enrolled);
+        assertEquals(CAPACITY, countEnrollments());
+        assertEquals(CAPACITY, seatsTaken());
+        assertEquals(STUDENTS - CAPACITY, enrollmentService.findWaitlist(classEntity.getId()).size());
+
+        // Freed seats go to the head of the waitlist, even when several are freed at once.
+        List<Long> nextInLine = enrollmentService.findWaitlist(classEntity.getId()).stream()
+                .limit(WITHDRAWALS)
+                .map(WaitlistEntryResponse::getStudentId)
+                .toList();
+        List<Callable<EnrollmentOutcome>> withdrawals = outcomes.stream()
+                .map(EnrollmentOutcome::getEnrollment)
+                .filter(enrollment -> enrollment != null)
+                .limit(WITHDRAWALS)
+                .map(EnrollmentResponse::getId)
+                .map(id -> (Callable<EnrollmentOutcome>) () -> {
+                    enrollmentService.delete(id);
+                    return null;
+                })
+                .toList();
+        runConcurrently(withdrawals);
+
+        assertEquals(CAPACITY, countEnrollments());
+        assertEquals(CAPACITY, seatsTaken());
+        assertEquals(STUDENTS - CAPACITY - WITHDRAWALS, enrollmentService.findWaitlist(classEntity.getId()).size());
+        List<Long> promoted = enrollmentService.findByClassId(classEntity.getId()).stream()
+                .map(EnrollmentResponse::getStudentId)
+                .filter(nextInLine::contains)
+                .toList();
+        assertEquals(WITHDRAWALS, promoted.size());
+    }
+
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+
+    private int countEnrollments() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollments WHERE class_id = ?", Integer.class, classEntity.getId());
+    }
+
+    private int seatsTaken() {
+        return jdbcTemplate.queryForObject(
+                "SELECT seats_taken FROM classes WHERE id = ?", Integer.class, classEntity.getId());
+    }
+}
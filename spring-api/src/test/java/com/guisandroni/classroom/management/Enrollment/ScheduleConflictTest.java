@@ -0,0 +1,146 @@
+package com.guisandroni.classroom.management.Enrollment;
+
+import com.guisandroni.classroom.management.Class.DTO.ClassResponse;
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.BulkEnrollmentResult;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentImportResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.Enum.BulkEnrollmentStatus;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentImportService;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Exception.ScheduleConflictException;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Overlapping classes, as tsrange(start_date, end_date): a class ending when another starts
+ * does not overlap it.
+ */
+@SpringBootTest
+@Transactional
+class ScheduleConflictTest {
+
+    private static final LocalDateTime JAN = LocalDateTime.of(2031, 1, 1, 8, 0);
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private EnrollmentImportService enrollmentImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Training training;
+    private Class january;
+    private Class midJanuary;
+    private Class february;
+    private Class april;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Agenda");
+        january = testData.newClass(training, "Janeiro", JAN, JAN.plusMonths(1));
+        midJanuary = testData.newClass(training, "Meio de janeiro", JAN.plusDays(14), JAN.plusMonths(2));
+        february = testData.newClass(training, "Fevereiro", JAN.plusMonths(1), JAN.plusMonths(2));
+        april = testData.newClass(training, "Abril", JAN.plusMonths(3), JAN.plusMonths(4));
+        student = testData.newStudent("Aluno");
+        // The checks are plain SQL, they only see flushed rows
+        entityManager.flush();
+        enrollmentService.create(new EnrollmentRequest(january.getId(), student.getId()));
+    }
+
+    @Test
+    void rejectsAnOverlappingClassNamingTheConflict() {
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class,
+                () -> enrollmentService.create(new EnrollmentRequest(midJanuary.getId(), student.getId())));
+        assertEquals(List.of(String.valueOf(january.getId())), List.copyOf(e.getConflicts().keySet()));
+    }
+
+    @Test
+    void bulkKeepsTheFirstOfTwoOverlappingClasses() {
+        BulkEnrollmentResponse response = enrollmentService.createBulk(BulkEnrollmentRequest.builder()
+                .studentId(student.getId())
+                .classIds(List.of(february.getId(), midJanuary.getId(), april.getId(), january.getId()))
+                .build());
+
+        assertEquals(List.of(BulkEnrollmentStatus.ENROLLED, BulkEnrollmentStatus.SCHEDULE_CONFLICT,
+                        BulkEnrollmentStatus.ENROLLED, BulkEnrollmentStatus.ALREADY_ENROLLED),
+                response.getResults().stream().map(BulkEnrollmentResult::getStatus).toList());
+        assertEquals(List.of(january.getId(), february.getId()), response.getResults().get(1).getConflictingClassIds());
+        assertEquals(1, response.getConflicting());
+    }
+
+    @Test
+    void csvImportRejectsOverlappingRowsWithTheReason() {
+        String csv = "email,className\n"
+                + student.getEmail() + "," + midJanuary.getName() + "\n"
+                + student.getEmail() + "," + april.getName() + "\n";
+        EnrollmentImportResponse response = enrollmentImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, response.getEnrolled());
+        assertEquals(1, response.getRejected());
+        String reason = jdbcTemplate.queryForObject(
+                "SELECT reason FROM enrollment_import_rejections WHERE import_id = ? AND line = 2",
+                String.class, response.getImportId());
+        assertEquals("Schedule conflict with " + january.getName() + " (" + january.getStartDate() + " to "
+                + january.getEndDate() + ")", reason);
+    }
+
+    @Test
+    void csvImportOnlyCountsEarlierLinesThatWereAccepted() {
+        Student other = testData.newStudent("Outro");
+        entityManager.flush();
+        // Mid-January overlaps both, January and February only touch
+        String csv = "email,className\n"
+                + other.getEmail() + "," + january.getName() + "\n"
+                + other.getEmail() + "," + midJanuary.getName() + "\n"
+                + other.getEmail() + "," + february.getName() + "\n";
+        EnrollmentImportResponse response = enrollmentImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, response.getEnrolled());
+        assertEquals(List.of(3), jdbcTemplate.queryForList(
+                "SELECT line FROM enrollment_import_rejections WHERE import_id = ?", Integer.class, response.getImportId()));
+    }
+
+    @Test
+    void listsClassesRunningDuringTheRange() {
+        List<ClassResponse> classes = classService.findPage(training.getId(), JAN.plusMonths(1), JAN.plusMonths(1).plusDays(1),
+                ClassService.SORT_START_DATE, null, null).items();
+        assertEquals(List.of(midJanuary.getId(), february.getId()), classes.stream().map(ClassResponse::getId).toList());
+
+        List<ClassResponse> all = classService.findPage(training.getId(), null, null, ClassService.SORT_ID, null, null).items();
+        assertEquals(4, all.size());
+    }
+}
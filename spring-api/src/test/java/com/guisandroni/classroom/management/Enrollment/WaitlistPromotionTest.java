@@ -0,0 +1,109 @@
+package com.guisandroni.classroom.management.Enrollment;
+
+import com.guisandroni.classroom.management.Class.DTO.ClassRequest;
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentRequest;
+import com.guisandroni.classroom.management.Enrollment.DTO.EnrollmentResponse;
+import com.guisandroni.classroom.management.Enrollment.DTO.WaitlistEntryResponse;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Capacity changes move students from the waitlist into the freed seats.
+ */
+@SpringBootTest
+@Transactional
+class WaitlistPromotionTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Training training;
+    private Class classEntity;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Espera");
+        classEntity = testData.newClass(training, "Turma", 1);
+        students = testData.newStudents("Aluno", 3);
+        entityManager.flush();
+        // The first student takes the only seat, the others wait.
+        students.forEach(student -> enrollmentService.create(new EnrollmentRequest(classEntity.getId(), student.getId())));
+    }
+
+    @Test
+    void unlimitedCapacityPromotesTheWholeWaitlist() {
+        classService.update(classEntity.getId(), classRequest(null));
+
+        assertEquals(students.stream().map(Student::getId).toList(), enrolledStudentIds());
+        assertEquals(List.of(), enrollmentService.findWaitlist(classEntity.getId()));
+        assertEquals(3, seatsTaken());
+    }
+
+    @Test
+    void entriesOfEnrolledStudentsDoNotTakeTheFreedSeat() {
+        // An entry left behind for the student who already holds the seat, ahead of the others
+        jdbcTemplate.update("DELETE FROM class_waitlist WHERE class_id = ?", classEntity.getId());
+        jdbcTemplate.update("INSERT INTO class_waitlist (class_id, student_id) VALUES (?, ?), (?, ?), (?, ?)",
+                classEntity.getId(), students.get(0).getId(),
+                classEntity.getId(), students.get(1).getId(),
+                classEntity.getId(), students.get(2).getId());
+
+        classService.update(classEntity.getId(), classRequest(2));
+
+        assertEquals(List.of(students.get(0).getId(), students.get(1).getId()), enrolledStudentIds());
+        assertEquals(List.of(students.get(2).getId()), enrollmentService.findWaitlist(classEntity.getId()).stream()
+                .map(WaitlistEntryResponse::getStudentId)
+                .toList());
+        assertEquals(2, seatsTaken());
+    }
+
+    private ClassRequest classRequest(Integer capacity) {
+        return ClassRequest.builder()
+                .trainingId(training.getId())
+                .name(classEntity.getName())
+                .startDate(classEntity.getStartDate())
+                .endDate(classEntity.getEndDate())
+                .capacity(capacity)
+                .build();
+    }
+
+    private List<Long> enrolledStudentIds() {
+        return enrollmentService.findByClassId(classEntity.getId()).stream()
+                .map(EnrollmentResponse::getStudentId)
+                .sorted()
+                .toList();
+    }
+
+    private int seatsTaken() {
+        return jdbcTemplate.queryForObject(
+                "SELECT seats_taken FROM classes WHERE id = ?", Integer.class, classEntity.getId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.guisandroni.classroom.management;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Service.ClassService;
+import com.guisandroni.classroom.management.Common.CursorPage;
+import com.guisandroni.classroom.management.Enrollment.Service.EnrollmentService;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import com.guisandroni.classroom.management.Resource.Service.ResourceService;
+import com.guisandroni.classroom.management.Student.DTO.StudentDashboardResponse;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Service.StudentService;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * List endpoints must not issue one query per row to resolve lazy associations. The
+ * persistence context is cleared before each call.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ListEndpointQueryCountTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Class firstClass;
+    private Student firstStudent;
+
+    @BeforeEach
+    void setUp() {
+        Training training = testData.newTraining("Count");
+        List<Class> classes = List.of(
+                testData.newClass(training, "Count class"),
+                testData.newClass(training, "Count class"),
+                testData.newClass(training, "Count class"));
+        List<Student> students = testData.newStudents("Count student", 5);
+        for (Class classEntity : classes) {
+            testData.newResource(classEntity, "Count resource", ResourcesType.PDF, false, false);
+            students.forEach(student -> testData.enroll(classEntity, student));
+        }
+
+        firstClass = classes.getFirst();
+        firstStudent = students.getFirst();
+        entityManager.flush();
+    }
+
+    @Test
+    void listEndpointsUseOneQuery() {
+        assertQueries(1, () -> classService.findPage(null, null, null, ClassService.SORT_START_DATE, null, null));
+        assertQueries(1, () -> classService.findByTrainingId(firstClass.getTraining().getId()));
+        assertQueries(1, () -> enrollmentService.findPage(null, null, null, null));
+        assertQueries(1, () -> enrollmentService.findByClassId(firstClass.getId()));
+        assertQueries(1, () -> enrollmentService.findByStudentId(firstStudent.getId()));
+        assertQueries(1, () -> resourceService.findPage(null, null, null, null, null));
+        assertQueries(1, () -> resourceService.findByClassId(firstClass.getId()));
+    }
+
+    @Test
+    void studentListLoadsEnrollmentsInOneExtraQuery() {
+        assertQueries(2, () -> studentService.findPage(null, null, null));
+        assertQueries(2, () -> studentService.findById(firstStudent.getId()));
+    }
+
+    @Test
+    void dashboardQueryCountDoesNotGrowWithEnrollments() {
+        StudentDashboardResponse dashboard = assertQueries(4, () -> studentService.findDashboard(firstStudent.getId()));
+        assertEquals(3, dashboard.getClasses().size());
+        dashboard.getClasses().forEach(classResponse -> assertEquals(1, classResponse.getResources().size()));
+    }
+
+    private <T> T assertQueries(long expected, Supplier<T> call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        T result = call.get();
+        Object rows = result instanceof CursorPage<?> page ? page.items() : result;
+
+        assertFalse(rows instanceof List<?> list && list.isEmpty(), "Expected rows to be returned");
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected number of SQL statements");
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.guisandroni.classroom.management.Resource;
+
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.AuthenticatedUser;
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceRequest;
+import com.guisandroni.classroom.management.Resource.DTO.ResourceResponse;
+import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import com.guisandroni.classroom.management.Resource.Service.ResourceService;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * GET /api/resources/my: drafts are never shown, and resources without previous access only
+ * once their class has started.
+ */
+@SpringBootTest
+@Transactional
+class VisibleResourcesTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Training training;
+    private Student student;
+    private Class upcoming;
+    private Class started;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Materiais");
+        upcoming = newClass("Próxima", LocalDateTime.now().plusDays(7));
+        started = newClass("Em andamento", LocalDateTime.now().minusDays(7));
+        student = testData.newStudent("Aluno");
+        testData.enroll(upcoming, student);
+        testData.enroll(started, student);
+
+        AuthenticatedUser user = new AuthenticatedUser(1L, student.getEmail(), Role.STUDENT, student.getId());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void hidesDraftsAndResourcesOfClassesNotStartedYet() {
+        Resource preview = newResource(upcoming, true, false);
+        newResource(upcoming, false, false);
+        newResource(upcoming, true, true);
+        Resource material = newResource(started, false, false);
+        newResource(newClass("Outra turma", LocalDateTime.now().minusDays(7)), true, false);
+        entityManager.flush();
+
+        assertEquals(List.of(preview.getId(), material.getId()), myResourceIds());
+    }
+
+    @Test
+    void showsAResourceOnceItIsPublished() {
+        Resource draft = newResource(started, false, true);
+        entityManager.flush();
+        assertEquals(List.of(), myResourceIds());
+
+        resourceService.update(draft.getId(), ResourceRequest.builder()
+                .classId(started.getId())
+                .resourceType(draft.getResourceType())
+                .previousAccess(false)
+                .draft(false)
+                .name(draft.getName())
+                .build());
+
+        assertEquals(List.of(draft.getId()), myResourceIds());
+    }
+
+    private List<Long> myResourceIds() {
+        return resourceService.findForCurrentStudent().stream().map(ResourceResponse::getId).toList();
+    }
+
+    private Class newClass(String name, LocalDateTime start) {
+        return testData.newClass(training, name, start, start.plusMonths(1));
+    }
+
+    private Resource newResource(Class classEntity, boolean previousAccess, boolean draft) {
+        return testData.newResource(classEntity, "Apostila", ResourcesType.PDF, previousAccess, draft);
+    }
+}
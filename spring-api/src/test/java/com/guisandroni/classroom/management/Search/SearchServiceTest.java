@@ -0,0 +1,197 @@
+package com.guisandroni.classroom.management.Search;
+
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.AuthenticatedUser;
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import com.guisandroni.classroom.management.Resource.Repository.ResourceRepository;
+import com.guisandroni.classroom.management.Search.DTO.SearchPage;
+import com.guisandroni.classroom.management.Search.DTO.SearchResultResponse;
+import com.guisandroni.classroom.management.Search.Enum.SearchMode;
+import com.guisandroni.classroom.management.Search.Enum.SearchType;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository.After;
+import com.guisandroni.classroom.management.Search.Repository.SearchRepository.SearchResult;
+import com.guisandroni.classroom.management.Search.Service.SearchService;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Search against the generated {@code search_vector} columns and trigram indexes. Runs in a
+ * rolled-back transaction with a made-up word so only the rows created here match.
+ */
+@SpringBootTest
+@Transactional
+class SearchServiceTest {
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String word;
+    private Class classEntity;
+
+    @BeforeEach
+    void setUp() {
+        // Letters only, so the parser keeps it a single word
+        word = "quasar" + UUID.randomUUID().toString().chars()
+                .filter(c -> c != '-')
+                .limit(10)
+                .map(c -> 'g' + Character.digit(c, 16))
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append);
+        Training training = trainingRepository.save(Training.builder()
+                .name("Treinamento " + word)
+                .description("Formação completa")
+                .build());
+        classEntity = classRepository.save(Class.builder()
+                .training(training)
+                .name("Turma de introdução")
+                .startDate(LocalDateTime.now())
+                .endDate(LocalDateTime.now().plusMonths(1))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ranksNameMatchesFirstAndHidesDraftsFromStudents() {
+        Resource inName = resourceRepository.save(newResource("Apostila " + word, "Material de apoio", false));
+        Resource inDescription = resourceRepository.save(newResource("Apostila", "Exercícios sobre " + word, false));
+        resourceRepository.save(newResource("Rascunho " + word, null, true));
+        entityManager.flush();
+
+        signIn(Role.ADMIN);
+        List<SearchResultResponse> admin = searchService.search(word, null, null, null, null).items();
+        assertEquals(4, admin.size());
+        assertEquals(inDescription.getId(), admin.getLast().getId());
+
+        signIn(Role.STUDENT);
+        List<SearchResultResponse> student = searchService.search(word, null, Set.of(SearchType.RESOURCE), null, null).items();
+        assertEquals(List.of(inName.getId(), inDescription.getId()),
+                student.stream().map(SearchResultResponse::getId).toList());
+
+        // Stemmed and accent-insensitive: "formacao" finds "Formação"
+        List<SearchResultResponse> training = searchService.search("formacao " + word, null, null, null, null).items();
+        assertEquals(List.of(SearchType.TRAINING), training.stream().map(SearchResultResponse::getType).toList());
+    }
+
+    @Test
+    void keysetPagesMatchTheUnpagedResult() {
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            resources.add(newResource(word + " parte " + i, null, false));
+        }
+        resourceRepository.saveAll(resources);
+        entityManager.flush();
+        signIn(Role.STUDENT);
+
+        // The training and the seven resources, in full-text mode and by prefix
+        for (String mode : List.of("fulltext", "typeahead")) {
+            String query = mode.equals("fulltext") ? word : word.substring(0, 10);
+            List<SearchResultResponse> all = searchService.search(query, mode, null, null, 100).items();
+            assertEquals(8, all.size(), mode);
+
+            List<SearchResultResponse> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                SearchPage page = searchService.search(query, mode, null, cursor, 3);
+                paged.addAll(page.items());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+            assertEquals(keys(all), keys(paged), mode);
+        }
+    }
+
+    @Test
+    void reportsMatchesBeyondTheRankedCandidates() {
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resources.add(newResource(word + " parte " + i, null, false));
+        }
+        resourceRepository.saveAll(resources);
+        entityManager.flush();
+        SearchRepository fewCandidates = new SearchRepository(jdbcTemplate, 3);
+        EnumSet<SearchType> types = EnumSet.allOf(SearchType.class);
+
+        SearchResult first = fewCandidates.search(SearchMode.FULLTEXT, word, types, false, null, 100);
+        assertTrue(first.truncated());
+        // The training, and the three newest resources
+        assertEquals(4, first.hits().size());
+        assertEquals(resources.get(2).getId(), first.hits().stream()
+                .filter(hit -> hit.type() == SearchType.RESOURCE)
+                .mapToLong(SearchRepository.SearchHit::id)
+                .min().orElseThrow());
+
+        // Past the last hit: no rows left, still flagged
+        SearchResult past = fewCandidates.search(SearchMode.FULLTEXT, word, types, false,
+                new After(Float.MAX_VALUE, SearchType.RESOURCE, Long.MAX_VALUE), 100);
+        assertEquals(List.of(), past.hits());
+        assertTrue(past.truncated());
+
+        signIn(Role.STUDENT);
+        SearchPage all = searchService.search(word, null, null, null, 100);
+        assertEquals(6, all.items().size());
+        assertFalse(all.truncated());
+    }
+
+    private Resource newResource(String name, String description, boolean draft) {
+        return Resource.builder()
+                .classEntity(classEntity)
+                .resourceType(ResourcesType.PDF)
+                .previousAccess(false)
+                .draft(draft)
+                .name(name)
+                .description(description)
+                .build();
+    }
+
+    private static List<String> keys(List<SearchResultResponse> hits) {
+        return hits.stream().map(hit -> hit.getType() + ":" + hit.getId()).toList();
+    }
+
+    private static void signIn(Role role) {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "search@test.com", role, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.guisandroni.classroom.management.Student;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guisandroni.classroom.management.Auth.Service.BoundedPasswordEncoder;
+import com.guisandroni.classroom.management.Student.DTO.BulkStudentResponse;
+import com.guisandroni.classroom.management.Student.DTO.BulkStudentRowResult;
+import com.guisandroni.classroom.management.Student.Enum.BulkRowStatus;
+import com.guisandroni.classroom.management.Student.Repository.StudentBulkRepository;
+import com.guisandroni.classroom.management.Student.Repository.StudentBulkRepository.TakenContacts;
+import com.guisandroni.classroom.management.Student.Service.StudentBulkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads past {@code students.bulk.max-rows} stop being read at the first extra row,
+ * so an endless body ends in one rejected row rather than in memory growing per row.
+ */
+class StudentBulkRowLimitTest {
+
+    private static final int MAX_ROWS = 3;
+
+    private BoundedPasswordEncoder passwordEncoder;
+    private StudentBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        StudentBulkRepository repository = mock(StudentBulkRepository.class);
+        when(repository.findTaken(anyCollection(), anyCollection())).thenReturn(new TakenContacts(Set.of(), Set.of()));
+        when(repository.insertAccounts(anyList())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<List<?>>getArgument(0).size()).boxed().toList());
+
+        passwordEncoder = new BoundedPasswordEncoder(4, 2, 8, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        service = new StudentBulkService(repository, passwordEncoder, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 1000, MAX_ROWS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void stopsReadingCsvAtTheRowLimit() {
+        BulkStudentResponse response = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> service.registerCsv(endless("name,email,phoneNumber,password\n",
+                        n -> "Aluno " + n + ",aluno" + n + "@limite.com,1199" + (1_000_000 + n) + ",senha123\n")));
+        assertRowLimit(response);
+    }
+
+    @Test
+    void stopsReadingJsonAtTheRowLimit() {
+        BulkStudentResponse response = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> service.registerJson(endless("[",
+                        n -> "{\"name\":\"Aluno " + n + "\",\"email\":\"aluno" + n + "@limite.com\","
+                                + "\"phoneNumber\":\"1199" + (1_000_000 + n) + "\",\"password\":\"senha123\"},")));
+        assertRowLimit(response);
+    }
+
+    private static void assertRowLimit(BulkStudentResponse response) {
+        assertThat(response.getResults()).hasSize(MAX_ROWS + 1);
+        assertThat(response.getCreated()).isEqualTo(MAX_ROWS);
+        BulkStudentRowResult last = response.getResults().get(MAX_ROWS);
+        assertThat(last.getStatus()).isEqualTo(BulkRowStatus.INVALID);
+        assertThat(last.getMessage()).startsWith("Row limit of " + MAX_ROWS + " exceeded");
+    }
+
+    /**
+     * A body that never ends: the header, then row after row.
+     */
+    private static InputStream endless(String header, LongFunction<String> row) {
+        return new InputStream() {
+            private byte[] chunk = header.getBytes(StandardCharsets.UTF_8);
+            private int position;
+            private long rows;
+
+            @Override
+            public int read() {
+                if (position == chunk.length) {
+                    chunk = row.apply(++rows).getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return chunk[position++] & 0xff;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.guisandroni.classroom.management.Student;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Exception.BusinessException;
+import com.guisandroni.classroom.management.Student.DTO.StudentResponse;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import com.guisandroni.classroom.management.Student.Service.StudentService;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Directory search against the trigram indexes of V9, in a rolled-back transaction. Names
+ * carry a random tag so only the students created here match.
+ */
+@SpringBootTest
+@Transactional
+class StudentSearchTest {
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String tag;
+    private String phone;
+    private Student enrolled;
+    private Student notEnrolled;
+    private Class classEntity;
+
+    @BeforeEach
+    void setUp() {
+        tag = ThreadLocalRandom.current().ints(8, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+        phone = "119" + ThreadLocalRandom.current().nextInt(10_000_000, 100_000_000);
+
+        Training training = trainingRepository.save(Training.builder().name("Busca " + tag).build());
+        classEntity = classRepository.save(Class.builder()
+                .training(training)
+                .name("Turma " + tag)
+                .startDate(LocalDateTime.now())
+                .endDate(LocalDateTime.now().plusMonths(1))
+                .build());
+        enrolled = studentRepository.save(Student.builder()
+                .name("Conceição Araújo " + tag)
+                .email(tag + ".joao.araujo@email.com")
+                .phoneNumber(phone)
+                .build());
+        notEnrolled = studentRepository.save(Student.builder()
+                .name("João Conceição " + tag)
+                .email(tag + "_joao@email.com")
+                // Stored as typed, with punctuation
+                .phoneNumber("11 8" + phone.substring(3, 7) + "-" + phone.substring(7))
+                .build());
+        enrollmentRepository.save(Enrollment.builder().classEntity(classEntity).studentEntity(enrolled).build());
+        entityManager.flush();
+    }
+
+    @Test
+    void matchesSubstringsIgnoringCaseAndAccents() {
+        assertEquals(List.of(enrolled.getId()), ids("ARAUJO " + tag.toUpperCase()));
+        assertEquals(List.of(notEnrolled.getId()), ids("conceicao " + tag));
+        // "_" is literal, not a LIKE wildcard that would also match "tag.joao"
+        assertEquals(List.of(notEnrolled.getId()), ids(tag + "_jo"));
+        // Formatted phone numbers match the stored digits
+        assertEquals(List.of(enrolled.getId()),
+                ids("(" + phone.substring(0, 2) + ") " + phone.substring(2, 7) + "-" + phone.substring(7)));
+        // Stored punctuation is ignored too
+        assertEquals(List.of(notEnrolled.getId()), ids("118" + phone.substring(3)));
+        assertEquals(List.of(enrolled.getId(), notEnrolled.getId()), ids(phone.substring(5)));
+        assertThrows(BusinessException.class, () -> studentService.search("ab", null, null, null));
+    }
+
+    @Test
+    void leavesOutStudentsEnrolledInTheClass() {
+        List<StudentResponse> students = studentService.search(tag, classEntity.getId(), null, null).items();
+        assertEquals(List.of(notEnrolled.getId()), students.stream().map(StudentResponse::getId).toList());
+    }
+
+    private List<Long> ids(String q) {
+        return studentService.search(q, null, null, null).items().stream().map(StudentResponse::getId).toList();
+    }
+}
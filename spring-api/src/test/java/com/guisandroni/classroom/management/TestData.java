@@ -0,0 +1,115 @@
+package com.guisandroni.classroom.management;
+
+import com.guisandroni.classroom.management.Class.Entity.Class;
+import com.guisandroni.classroom.management.Class.Repository.ClassRepository;
+import com.guisandroni.classroom.management.Enrollment.Entity.Enrollment;
+import com.guisandroni.classroom.management.Enrollment.Repository.EnrollmentRepository;
+import com.guisandroni.classroom.management.Resource.Entity.Resource;
+import com.guisandroni.classroom.management.Resource.Enum.ResourcesType;
+import com.guisandroni.classroom.management.Resource.Repository.ResourceRepository;
+import com.guisandroni.classroom.management.Student.Entity.Student;
+import com.guisandroni.classroom.management.Student.Repository.StudentRepository;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import com.guisandroni.classroom.management.Training.Repository.TrainingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saves the rows integration tests build on. Names, emails and phone numbers get a suffix
+ * unique across runs, so tests that commit cannot collide with each other or with rows
+ * left behind. Rows are saved in the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(ThreadLocalRandom.current().nextLong(10_000_000_000L));
+
+    private final TrainingRepository trainingRepository;
+    private final ClassRepository classRepository;
+    private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ResourceRepository resourceRepository;
+
+    public Training newTraining(String name) {
+        return newTraining(name, null);
+    }
+
+    public Training newTraining(String name, String description) {
+        return trainingRepository.save(Training.builder()
+                .name(unique(name))
+                .description(description)
+                .build());
+    }
+
+    /**
+     * A class of the training running for a month from now, without a capacity.
+     */
+    public Class newClass(Training training, String name) {
+        return newClass(training, name, null);
+    }
+
+    public Class newClass(Training training, String name, Integer capacity) {
+        LocalDateTime start = LocalDateTime.now();
+        return newClass(training, name, start, start.plusMonths(1), capacity);
+    }
+
+    public Class newClass(Training training, String name, LocalDateTime start, LocalDateTime end) {
+        return newClass(training, name, start, end, null);
+    }
+
+    public Class newClass(Training training, String name, LocalDateTime start, LocalDateTime end, Integer capacity) {
+        return classRepository.save(Class.builder()
+                .training(training)
+                .name(unique(name))
+                .startDate(start)
+                .endDate(end)
+                .capacity(capacity)
+                .build());
+    }
+
+    public Student newStudent(String name) {
+        return newStudents(name, 1).getFirst();
+    }
+
+    /**
+     * Saves {@code count} students in one {@code saveAll}, named {@code name 0}, {@code name 1}
+     * and so on.
+     */
+    public List<Student> newStudents(String name, int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long n = SEQUENCE.incrementAndGet();
+            students.add(Student.builder()
+                    .name(name + " " + i)
+                    .email("student-" + n + "@test.com")
+                    .phoneNumber("10" + String.format("%011d", n))
+                    .build());
+        }
+        return studentRepository.saveAll(students);
+    }
+
+    public Enrollment enroll(Class classEntity, Student student) {
+        return enrollmentRepository.save(Enrollment.builder().classEntity(classEntity).studentEntity(student).build());
+    }
+
+    public Resource newResource(Class classEntity, String name, ResourcesType type, boolean previousAccess, boolean draft) {
+        return resourceRepository.save(Resource.builder()
+                .classEntity(classEntity)
+                .resourceType(type)
+                .previousAccess(previousAccess)
+                .draft(draft)
+                .name(name)
+                .build());
+    }
+
+    private static String unique(String name) {
+        return name + " " + SEQUENCE.incrementAndGet();
+    }
+}
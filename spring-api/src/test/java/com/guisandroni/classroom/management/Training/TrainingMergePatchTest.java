@@ -0,0 +1,148 @@
+package com.guisandroni.classroom.management.Training;
+
+import com.guisandroni.classroom.management.Auth.Enum.Role;
+import com.guisandroni.classroom.management.Auth.Service.AuthenticatedUser;
+import com.guisandroni.classroom.management.Common.MergePatch;
+import com.guisandroni.classroom.management.TestData;
+import com.guisandroni.classroom.management.Training.Entity.Training;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PATCH /api/trainings/{id} with a JSON Merge Patch, through the controller and the error
+ * handler. Security filters are left out; the admin is set on the security context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@Transactional
+class TrainingMergePatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Training training;
+
+    @BeforeEach
+    void setUp() {
+        training = testData.newTraining("Patch", "Descrição original");
+        entityManager.flush();
+
+        AuthenticatedUser admin = new AuthenticatedUser(1L, "admin@patch.com", Role.ADMIN, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void keepsOmittedMembers() throws Exception {
+        patchTraining("{\"description\": \"Nova descrição\"}", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(training.getName()))
+                .andExpect(jsonPath("$.description").value("Nova descrição"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void nullClearsAMember() throws Exception {
+        patchTraining("{\"description\": null}", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").doesNotExist());
+        assertEquals(null, column("description"));
+    }
+
+    @Test
+    void nullOnARequiredMemberFailsValidation() throws Exception {
+        patchTraining("{\"name\": null}", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation error"));
+        assertEquals(training.getName(), column("name"));
+    }
+
+    @Test
+    void rejectsUnknownMembers() throws Exception {
+        patchTraining("{\"title\": \"Outro\"}", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field: title"));
+    }
+
+    @Test
+    void answersPreconditionFailedForAStaleVersion() throws Exception {
+        patchTraining("{\"description\": \"Nova descrição\"}", "\"5\"")
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("Descrição original", column("description"));
+    }
+
+    @Test
+    void acceptsAnIfMatchListContainingTheCurrentVersion() throws Exception {
+        patchTraining("{\"description\": \"Nova descrição\"}", "\"3\", W/\"0\"")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void skipsTheWriteWhenNothingChanges() throws Exception {
+        patchTraining("{\"name\": \"" + training.getName() + "\"}", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+        entityManager.flush();
+        assertEquals(0L, ((Number) column("version")).longValue());
+    }
+
+    @Test
+    void writesOnlyTheChangedColumns() throws Exception {
+        // Changed behind Hibernate's back: a full-row update would write the loaded value back.
+        jdbcTemplate.update("UPDATE trainings SET description = 'Alterada por outro' WHERE id = ?", training.getId());
+
+        patchTraining("{\"name\": \"Renomeado\"}", null)
+                .andExpect(status().isOk());
+
+        assertEquals(Map.of("name", "Renomeado", "description", "Alterada por outro"), jdbcTemplate.queryForMap(
+                "SELECT name, description FROM trainings WHERE id = ?", training.getId()));
+    }
+
+    private ResultActions patchTraining(String body, String ifMatch) throws Exception {
+        var request = patch("/api/trainings/{id}", training.getId())
+                .contentType(MergePatch.MEDIA_TYPE)
+                .content(body);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private Object column(String name) {
+        return jdbcTemplate.queryForMap("SELECT " + name + " FROM trainings WHERE id = ?", training.getId()).get(name);
+    }
+}